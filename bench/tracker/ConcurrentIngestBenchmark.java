@@ -0,0 +1,92 @@
+package tracker;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.LongAdder;
+/**
+ * Submits points from 1..N threads against one tracker, reporting throughput per thread count
+ * and failing if any points are lost or a completion is notified twice.
+ * Run with: java -cp <classes> tracker.ConcurrentIngestBenchmark [students] [submissions] [maxThreads]
+ */
+public class ConcurrentIngestBenchmark {
+    public static void main(String[] args) throws Exception {
+        int studentCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int submissionCount = args.length > 1 ? Integer.parseInt(args[1]) : 4_000_000;
+        int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            run(studentCount, submissionCount, threads);
+        }
+    }
+
+    private static void run(int studentCount, int submissionCount, int threadCount) throws Exception {
+        StudentTracker tracker = new StudentTracker(new NotificationDispatcher(new MailboxNotificationSink()));
+        Student[] students = new Student[studentCount];
+        for (int i = 0; i < studentCount; i++) {
+            Student student = tracker.newStudent();
+            student.applyCredentials("Bench Student student" + i + "@bench.io");
+            tracker.registerStudent(student);
+            students[i] = student;
+        }
+
+        LongAdder[] expectedPoints = new LongAdder[tracker.getCatalog().size()];
+        for (int i = 0; i < expectedPoints.length; i++) {
+            expectedPoints[i] = new LongAdder();
+        }
+        Thread[] threads = new Thread[threadCount];
+        int perThread = submissionCount / threadCount;
+        for (int t = 0; t < threadCount; t++) {
+            long seed = t;
+            threads[t] = new Thread(() -> {
+                SplittableRandom random = new SplittableRandom(seed);
+                int[] scores = new int[expectedPoints.length];
+                for (int i = 0; i < perThread; i++) {
+                    for (int c = 0; c < scores.length; c++) {
+                        // Mostly small scores, with the odd one big enough to complete a course.
+                        scores[c] = random.nextInt(100) == 0 ? 700 : random.nextInt(10);
+                        expectedPoints[c].add(scores[c]);
+                    }
+                    tracker.submitPoints(students[random.nextInt(studentCount)], scores);
+                }
+            });
+        }
+
+        long start = System.nanoTime();
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        verify(tracker, students, expectedPoints);
+        System.out.printf("%2d threads: %,d submissions in %d ms, %,d submissions/s%n", threadCount,
+                (long) perThread * threadCount, elapsed / 1_000_000, (long) perThread * threadCount * 1_000_000_000L / elapsed);
+        tracker.shutdown();
+    }
+
+    private static void verify(StudentTracker tracker, Student[] students, LongAdder[] expectedPoints) {
+        for (int courseId = 0; courseId < expectedPoints.length; courseId++) {
+            Course course = tracker.getCourse(courseId);
+            long studentTotal = 0;
+            for (Student student : students) {
+                studentTotal += student.getGrade(courseId);
+            }
+            long courseTotal = course.getGradeSum();
+            long expected = expectedPoints[courseId].sum();
+            if (studentTotal != expected || courseTotal != expected) {
+                throw new IllegalStateException(course.getName() + ": expected " + expected + " points, students hold "
+                        + studentTotal + ", course holds " + courseTotal);
+            }
+            if (course.getLeaderboard().size() != course.getEnrolledCount()) {
+                throw new IllegalStateException(course.getName() + ": leaderboard and enrollment count disagree");
+            }
+        }
+        Set<Notification> unique = new HashSet<>(tracker.getPendingNotifications());
+        if (unique.size() != tracker.getPendingNotifications().size()) {
+            throw new IllegalStateException("Duplicate completion notifications were queued");
+        }
+    }
+}
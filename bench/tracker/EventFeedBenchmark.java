@@ -0,0 +1,106 @@
+package tracker;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicLong;
+/**
+ * Submits the same points rows with no subscriber, with fast subscribers, and with one slow subscriber under each
+ * overflow policy, reporting rows per second on the submitting thread, events delivered and events dropped.
+ * Fails if a blocking subscriber misses an event.
+ * Run with: java -cp <classes> tracker.EventFeedBenchmark [students] [rows]
+ */
+public class EventFeedBenchmark {
+    public static void main(String[] args) throws Exception {
+        int studentCount = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        int rowCount = args.length > 1 ? Integer.parseInt(args[1]) : 500_000;
+        String[] students = new SyntheticData(1).students(studentCount);
+        String[] rows = new SyntheticData(2).points(rowCount, 10000, studentCount, 50);
+
+        System.out.println("subscribers                   rows/s    delivered      dropped");
+        run("none", students, rows, 0, 0, TrackerEventFeed.OverflowPolicy.BLOCK);
+        run("1 fast, block", students, rows, 1, 0, TrackerEventFeed.OverflowPolicy.BLOCK);
+        run("4 fast, block", students, rows, 4, 0, TrackerEventFeed.OverflowPolicy.BLOCK);
+        run("1 slow, block", students, rows, 1, 1, TrackerEventFeed.OverflowPolicy.BLOCK);
+        run("1 slow, drop oldest", students, rows, 1, 1, TrackerEventFeed.OverflowPolicy.DROP_OLDEST);
+        run("1 slow, drop newest", students, rows, 1, 1, TrackerEventFeed.OverflowPolicy.DROP_NEWEST);
+    }
+
+    // Slow subscribers sleep for the given milliseconds after each batch.
+    private static void run(String label, String[] students, String[] rows, int subscriberCount, long pauseMillis,
+                            TrackerEventFeed.OverflowPolicy policy) throws Exception {
+        StudentTracker tracker = new StudentTracker(new NotificationDispatcher(new MailboxNotificationSink()));
+        AtomicLong delivered = new AtomicLong();
+        CountDownLatch completed = new CountDownLatch(subscriberCount);
+        for (int i = 0; i < subscriberCount; i++) {
+            tracker.getEvents().subscribe(new CountingSubscriber(delivered, completed, pauseMillis),
+                    TrackerEventFeed.DEFAULT_CAPACITY, TrackerEventFeed.DEFAULT_BATCH_SIZE, policy);
+        }
+        // Subscriptions start on their own threads; wait for them so no event goes unseen.
+        while (tracker.getEvents().getSubscriberCount() < subscriberCount) {
+            Thread.sleep(1);
+        }
+        for (String line : students) {
+            tracker.addStudentLine(line);
+        }
+
+        PointsParser parser = tracker.newPointsParser(false);
+        long start = System.nanoTime();
+        for (String row : rows) {
+            if (tracker.submitPointsLine(row, parser) != Tracker.PointsStatus.UPDATED) {
+                throw new IllegalStateException("Rejected synthetic points " + row);
+            }
+        }
+        double rowsPerSecond = rows.length * 1e9 / (System.nanoTime() - start);
+        tracker.getEvents().close();
+        completed.await();
+        long dropped = tracker.getEvents().getDroppedCount();
+        if (policy == TrackerEventFeed.OverflowPolicy.BLOCK && dropped > 0) {
+            throw new IllegalStateException("A blocking subscriber lost " + dropped + " events");
+        }
+        System.out.printf("%-24s %12.0f %12d %12d%n", label, rowsPerSecond, delivered.get(), dropped);
+        tracker.shutdown();
+    }
+
+    private static class CountingSubscriber implements Flow.Subscriber<List<TrackerEvent>> {
+        private final AtomicLong delivered;
+        private final CountDownLatch completed;
+        private final long pauseMillis;
+        private Flow.Subscription subscription;
+
+        CountingSubscriber(AtomicLong delivered, CountDownLatch completed, long pauseMillis) {
+            this.delivered = delivered;
+            this.completed = completed;
+            this.pauseMillis = pauseMillis;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(List<TrackerEvent> batch) {
+            delivered.addAndGet(batch.size());
+            if (pauseMillis > 0) {
+                try {
+                    Thread.sleep(pauseMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    subscription.cancel();
+                }
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            completed.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed.countDown();
+        }
+    }
+}
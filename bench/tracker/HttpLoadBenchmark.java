@@ -0,0 +1,158 @@
+package tracker;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+/**
+ * Load test for the HTTP API: registers students, then posts points as single rows and as batches
+ * from several client threads over keep-alive connections, reporting rows per second and the
+ * median, 99th percentile and maximum request latency.
+ * Run with: java -cp <classes> tracker.HttpLoadBenchmark [--students n] [--rows n] [--clients n] [--batch n]
+ */
+public class HttpLoadBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int studentCount = 10_000;
+        int rowCount = 200_000;
+        int clients = 8;
+        int batchSize = 1_000;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--students" -> studentCount = Integer.parseInt(args[i + 1]);
+                case "--rows" -> rowCount = Integer.parseInt(args[i + 1]);
+                case "--clients" -> clients = Integer.parseInt(args[i + 1]);
+                case "--batch" -> batchSize = Integer.parseInt(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        SyntheticData data = new SyntheticData(studentCount);
+        String[] students = data.students(studentCount);
+        String[] points = data.points(rowCount, 10000, studentCount, 200);
+
+        StudentTracker tracker = new StudentTracker(new NotificationDispatcher(new MailboxNotificationSink()));
+        try (TrackerHttpServer server = new TrackerHttpServer(tracker, 0, clients)) {
+            server.start();
+            String base = "http://localhost:" + server.getPort();
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            ExecutorService pool = Executors.newFixedThreadPool(clients);
+
+            System.out.println("endpoint                   rows          ms       rows/s    p50 ms    p99 ms    max ms");
+            Latencies studentLatencies = new Latencies(students.length);
+            long start = System.nanoTime();
+            run(pool, clients, students.length, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    expect(post(client, base + "/students", students[i], studentLatencies), 201);
+                }
+            });
+            report("POST /students", students.length, System.nanoTime() - start, studentLatencies);
+
+            int singleRows = Math.min(points.length, 20_000);
+            Latencies singleLatencies = new Latencies(singleRows);
+            start = System.nanoTime();
+            run(pool, clients, singleRows, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    expect(post(client, base + "/points", points[i], singleLatencies), 200);
+                }
+            });
+            report("POST /points", singleRows, System.nanoTime() - start, singleLatencies);
+
+            int batch = batchSize;
+            Latencies batchLatencies = new Latencies(points.length / batch + clients);
+            start = System.nanoTime();
+            run(pool, clients, points.length, (from, to) -> {
+                for (int i = from; i < to; i += batch) {
+                    String body = String.join("\n", List.of(points).subList(i, Math.min(to, i + batch)));
+                    expect(post(client, base + "/points/batch", body, batchLatencies), 200);
+                }
+            });
+            report("POST /points/batch", points.length, System.nanoTime() - start, batchLatencies);
+
+            pool.shutdown();
+        }
+        tracker.shutdown();
+    }
+
+    private interface Slice {
+        void run(int from, int to) throws Exception;
+    }
+
+    // Splits [0, count) evenly across the clients and waits for all of them.
+    private static void run(ExecutorService pool, int clients, int count, Slice slice) throws Exception {
+        List<Future<?>> futures = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            int from = (int) ((long) count * c / clients);
+            int to = (int) ((long) count * (c + 1) / clients);
+            futures.add(pool.submit(() -> {
+                slice.run(from, to);
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+
+    private static HttpResponse<String> post(HttpClient client, String uri, String body, Latencies latencies)
+            throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(uri))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        long start = System.nanoTime();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        latencies.add(System.nanoTime() - start);
+        return response;
+    }
+
+    private static void expect(HttpResponse<String> response, int status) {
+        if (response.statusCode() != status) {
+            throw new IllegalStateException("Unexpected response " + response.statusCode() + ": " + response.body());
+        }
+    }
+
+    private static void report(String benchmark, int rows, long nanos, Latencies latencies) {
+        long[] sorted = latencies.sorted();
+        System.out.printf("%-20s %10d %11.1f %12.0f %9.2f %9.2f %9.2f%n", benchmark, rows, nanos / 1e6,
+                rows * 1e9 / nanos, percentile(sorted, 50) / 1e6, percentile(sorted, 99) / 1e6,
+                sorted.length == 0 ? 0.0 : sorted[sorted.length - 1] / 1e6);
+    }
+
+    // Nearest-rank percentile of sorted request latencies in nanoseconds.
+    private static long percentile(long[] sorted, int percent) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.max(0, (int) Math.ceil(sorted.length * percent / 100.0) - 1)];
+    }
+
+    // Request latencies from every client thread.
+    private static final class Latencies {
+        private long[] values;
+        private int size;
+
+        Latencies(int expected) {
+            this.values = new long[Math.max(16, expected)];
+        }
+
+        synchronized void add(long nanos) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nanos;
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
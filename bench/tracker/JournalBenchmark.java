@@ -0,0 +1,73 @@
+package tracker;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+/**
+ * Measures journal append and fsync throughput, then startup time when recovering from the log alone
+ * and from a snapshot.
+ * Run with: java -cp <classes> tracker.JournalBenchmark [students] [submissions]
+ */
+public class JournalBenchmark {
+    public static void main(String[] args) throws IOException {
+        int studentCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int submissionCount = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        Path directory = Files.createTempDirectory("journal-bench");
+        try {
+            StudentTracker tracker = newTracker();
+            TrackerJournal journal = new TrackerJournal(directory);
+            journal.recover(tracker);
+            tracker.attachJournal(journal);
+
+            long start = System.nanoTime();
+            Student[] students = new Student[studentCount];
+            for (int i = 0; i < studentCount; i++) {
+                students[i] = tracker.newStudent();
+                students[i].applyCredentials("Bench Student student" + i + "@bench.io");
+                tracker.registerStudent(students[i]);
+            }
+            SplittableRandom random = new SplittableRandom(42);
+            int[] scores = new int[tracker.getCatalog().size()];
+            for (int i = 0; i < submissionCount; i++) {
+                for (int c = 0; c < scores.length; c++) {
+                    scores[c] = random.nextInt(10);
+                }
+                tracker.submitPoints(students[random.nextInt(studentCount)], scores);
+            }
+            journal.flush();
+            long elapsed = System.nanoTime() - start;
+            long records = journal.getLastSequence();
+            System.out.printf("Logged %,d records in %d ms (%,d records/s), %,d fsyncs averaging %.2f ms, %.1f MB%n",
+                    records, elapsed / 1_000_000, records * 1_000_000_000L / elapsed, journal.getCommitCount(),
+                    journal.getCommitNanos() / 1e6 / Math.max(1, journal.getCommitCount()),
+                    journal.getCommittedBytes() / (1024.0 * 1024.0));
+            // Closing without a snapshot leaves everything in the log.
+            journal.close();
+            tracker.getNotificationDispatcher().close();
+
+            tracker = newTracker();
+            journal = new TrackerJournal(directory);
+            System.out.println("Log replay: " + journal.recover(tracker));
+            journal.snapshot(tracker);
+            journal.close();
+            tracker.shutdown();
+
+            tracker = newTracker();
+            journal = new TrackerJournal(directory);
+            System.out.println("Snapshot load: " + journal.recover(tracker));
+            journal.close();
+            tracker.shutdown();
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private static StudentTracker newTracker() {
+        return new StudentTracker(new NotificationDispatcher(new MailboxNotificationSink()));
+    }
+}
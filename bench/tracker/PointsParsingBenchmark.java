@@ -0,0 +1,64 @@
+package tracker;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+/**
+ * Compares the per-line cost of the old regex and double split points validation with PointsParser;
+ * PointsParsingCheck checks that both accept the same lines.
+ * Each invocation parses the next of a fixed set of random lines; add -prof gc for the bytes allocated per line.
+ * Run with: java -jar bench/target/benchmarks.jar PointsParsingBenchmark [-prof gc]
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PointsParsingBenchmark {
+    @Param("1000000")
+    public int lines;
+
+    private String[] input;
+    private int next;
+    private final PointsParser parser = new PointsParser(4, false);
+
+    @Setup
+    public void generate() {
+        SplittableRandom random = new SplittableRandom(1);
+        input = new String[lines];
+        for (int i = 0; i < lines; i++) {
+            input[i] = (10000 + random.nextInt(100_000)) + " " + random.nextInt(100) + " " + random.nextInt(100)
+                    + " " + random.nextInt(100) + " " + random.nextInt(100);
+        }
+    }
+
+    @Benchmark
+    public long regexAndSplit() {
+        int[] scores = PointsParsingCheck.legacyScores(nextLine());
+        return scores == null ? -1 : scores[0] + scores[1] + scores[2] + scores[3];
+    }
+
+    @Benchmark
+    public long pointsParser() {
+        return parser.parse(nextLine())
+                ? parser.getScore(0) + parser.getScore(1) + parser.getScore(2) + parser.getScore(3)
+                : -1;
+    }
+
+    private String nextLine() {
+        String line = input[next];
+        next = next + 1 == input.length ? 0 : next + 1;
+        return line;
+    }
+}
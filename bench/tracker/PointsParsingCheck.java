@@ -0,0 +1,104 @@
+package tracker;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+/**
+ * Checks that PointsParser accepts exactly the 'add points' lines the old regex and double split validation did, and
+ * reads the same id and scores from them. Half the lines are well formed; the rest carry extra or unusual whitespace,
+ * signs, letters, non-ASCII digits, overlong numbers or the wrong number of fields. Fails on the first disagreement.
+ * Run with: java -cp <classes> tracker.PointsParsingCheck [lines] [seed]
+ */
+public class PointsParsingCheck {
+    private static final String[] WHITESPACE = {" ", "\t", "\u000B", "\f", "\r", "\n"};
+
+    public static void main(String[] args) {
+        int lineCount = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1;
+
+        SplittableRandom random = new SplittableRandom(seed);
+        PointsParser parser = new PointsParser(4, false);
+        int accepted = 0;
+        for (int i = 0; i < lineCount; i++) {
+            String line = randomLine(random);
+            int[] expected = legacyScores(line);
+            boolean wellFormed = parser.parse(line);
+            if (wellFormed != (expected != null)
+                    || wellFormed && (!parser.getStudentId().equals(line.split("\\s")[0])
+                    || !Arrays.equals(parser.getScores(), expected))) {
+                System.out.println("Mismatch on line " + i + ": " + TrackerHttpServer.quote(line) + " legacy "
+                        + Arrays.toString(expected) + ", parser " + (wellFormed ? Arrays.toString(parser.getScores())
+                        : "rejected"));
+                System.exit(1);
+            }
+            if (wellFormed) {
+                accepted++;
+            }
+        }
+        System.out.println(lineCount + " lines agree: " + accepted + " accepted, " + (lineCount - accepted)
+                + " rejected.");
+    }
+
+    // The validation and parsing StudentTracker did per line before PointsParser; null for a rejected line. A line of
+    // only whitespace and values too large for an int threw there, and count as rejected here.
+    static int[] legacyScores(String input) {
+        String[] splitInput = input.split("\\s");
+        if (splitInput.length == 0 || !splitInput[0].matches("^\\d+$") || !input.matches("^[\\d\\s]+$")
+                || splitInput.length != 5) {
+            return null;
+        }
+        String[] values = input.split("\\s");
+        try {
+            return new int[] {Integer.parseInt(values[1]), Integer.parseInt(values[2]),
+                    Integer.parseInt(values[3]), Integer.parseInt(values[4])};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String randomLine(SplittableRandom random) {
+        if (random.nextInt(2) == 0) {
+            return (10000 + random.nextInt(100_000)) + " " + random.nextInt(100) + " " + random.nextInt(100) + " "
+                    + random.nextInt(100) + " " + random.nextInt(100);
+        }
+        int fieldCount = random.nextInt(4) == 0 ? random.nextInt(8) : 5;
+        StringBuilder line = new StringBuilder();
+        if (random.nextInt(8) == 0) {
+            line.append(randomWhitespace(random));
+        }
+        for (int field = 0; field < fieldCount; field++) {
+            if (field > 0) {
+                line.append(random.nextInt(4) == 0 ? randomWhitespace(random) : " ");
+            }
+            line.append(randomField(random));
+        }
+        if (random.nextInt(6) == 0) {
+            line.append(randomWhitespace(random));
+        }
+        return line.toString();
+    }
+
+    // One to three whitespace characters of any kind \s matches.
+    private static String randomWhitespace(SplittableRandom random) {
+        StringBuilder whitespace = new StringBuilder();
+        for (int count = 1 + random.nextInt(3); count > 0; count--) {
+            whitespace.append(WHITESPACE[random.nextInt(WHITESPACE.length)]);
+        }
+        return whitespace.toString();
+    }
+
+    private static String randomField(SplittableRandom random) {
+        return switch (random.nextInt(12)) {
+            case 0 -> "+" + random.nextInt(100);
+            case 1 -> "-" + random.nextInt(100);
+            // Around Integer.MAX_VALUE, where parsing starts to overflow.
+            case 2 -> Long.toString(Integer.MAX_VALUE - 2L + random.nextInt(5));
+            case 3 -> Long.toString(random.nextLong(10_000_000_000L, Long.MAX_VALUE));
+            case 4 -> "0".repeat(1 + random.nextInt(12)) + random.nextInt(100);
+            case 5 -> random.nextInt(100) + "x";
+            case 6 -> "\u0665" + random.nextInt(10);
+            case 7 -> random.nextInt(10) + "," + random.nextInt(10);
+            case 8 -> "";
+            default -> Integer.toString(random.nextInt(100_000));
+        };
+    }
+}
@@ -0,0 +1,125 @@
+package tracker;
+
+import java.util.List;
+import java.util.SplittableRandom;
+/**
+ * Times the threshold questions the statistics sub-commands answer, once as a full pass over every student with
+ * getSpecifiedGrade and once through the course's points index and leaderboard: students above 80% of the required
+ * points, a student's rank, and the students within 50 points of completing. Fails if the two disagree.
+ * Run with: java -cp <classes> tracker.PointsQueryBenchmark [students] [rows] [queries]
+ */
+public class PointsQueryBenchmark {
+    public static void main(String[] args) {
+        int studentCount = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int rowCount = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+        int queries = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+
+        StudentTracker tracker = new StudentTracker(new NotificationDispatcher(new MailboxNotificationSink()));
+        for (String line : new SyntheticData(1).students(studentCount)) {
+            tracker.addStudentLine(line);
+        }
+        // Scores up to a quarter of each course's credits, so totals spread out on both sides of completion.
+        SplittableRandom random = new SplittableRandom(3);
+        Course[] courses = tracker.getCourseMap().values().toArray(new Course[0]);
+        int[] scores = new int[courses.length];
+        for (int i = 0; i < rowCount; i++) {
+            for (int c = 0; c < courses.length; c++) {
+                scores[c] = random.nextInt(courses[c].getRequiredCredits() / 4);
+            }
+            tracker.submitPoints(tracker.getStudent(10000 + random.nextInt(studentCount)), scores);
+        }
+        List<Student> students = tracker.getStudentsInIdOrder();
+        CourseView course = tracker.findCourse("Java");
+        int threshold = course.getRequiredCredits() * 80 / 100;
+        int nearLow = course.getRequiredCredits() - 50;
+        int nearHigh = course.getRequiredCredits() - 1;
+
+        System.out.println("query                     full pass us      indexed us");
+        long[] results = new long[2];
+        double scan = time(queries, i -> results[0] = countByScan(students, threshold));
+        double indexed = time(queries, i -> results[1] = course.countAtLeast(threshold));
+        check("count above 80%", results);
+        System.out.printf("%-24s %14.1f %15.2f%n", "count above 80%", scan, indexed);
+
+        Student[] picks = new Student[queries];
+        for (int i = 0; i < queries; i++) {
+            picks[i] = students.get(random.nextInt(students.size()));
+        }
+        scan = time(queries, i -> results[0] = rankByScan(students, picks[i]));
+        indexed = time(queries, i -> results[1] = course.rankOf(picks[i]));
+        check("rank of student", results);
+        System.out.printf("%-24s %14.1f %15.2f%n", "rank of student", scan, indexed);
+
+        scan = time(queries, i -> results[0] = rangeByScan(students, nearLow, nearHigh));
+        indexed = time(queries, i -> {
+            long count = 0;
+            for (Course.Standing ignored : course.getStandingsBetween(nearLow, nearHigh)) {
+                count++;
+            }
+            results[1] = count;
+        });
+        check("within 50 of completing", results);
+        System.out.printf("%-24s %14.1f %15.2f   (%d students)%n", "within 50 of completing", scan, indexed,
+                results[1]);
+        tracker.shutdown();
+    }
+
+    private static long countByScan(List<Student> students, int threshold) {
+        long count = 0;
+        for (Student student : students) {
+            int points = student.getSpecifiedGrade("Java");
+            if (points > 0 && points >= threshold) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static long rankByScan(List<Student> students, Student target) {
+        int points = target.getSpecifiedGrade("Java");
+        if (points == 0) {
+            return 0;
+        }
+        long ahead = 0;
+        for (Student student : students) {
+            if (student.getSpecifiedGrade("Java") > points) {
+                ahead++;
+            }
+        }
+        return ahead + 1;
+    }
+
+    private static long rangeByScan(List<Student> students, int low, int high) {
+        long count = 0;
+        for (Student student : students) {
+            int points = student.getSpecifiedGrade("Java");
+            if (points > 0 && points >= low && points <= high) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static void check(String label, long[] results) {
+        if (results[0] != results[1]) {
+            throw new IllegalStateException(label + ": full pass gave " + results[0] + ", index " + results[1]);
+        }
+    }
+
+    // Mean microseconds per query over a second run, the first being warm-up.
+    private static double time(int queries, Query query) {
+        long elapsed = 0;
+        for (int round = 0; round < 2; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < queries; i++) {
+                query.run(i);
+            }
+            elapsed = System.nanoTime() - start;
+        }
+        return elapsed / 1e3 / queries;
+    }
+
+    private interface Query {
+        void run(int index);
+    }
+}
@@ -0,0 +1,78 @@
+package tracker;
+
+import java.util.SplittableRandom;
+/**
+ * Registers a large cohort with varied names and times pages of search results: exact email, email prefix and
+ * name prefix at one, two and three letters, each also paged from the middle of the matches.
+ * Run with: java -cp <classes> tracker.SearchBenchmark [students] [queries per case]
+ */
+public class SearchBenchmark {
+    private static final String[] SYLLABLES = {"an", "bel", "co", "da", "el", "fi", "gar", "ha", "jo", "ka", "li",
+            "mar", "no", "pe", "ra", "sa", "to", "vi", "wen", "za"};
+
+    public static void main(String[] args) {
+        int studentCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int queries = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+
+        StudentTracker tracker = new StudentTracker(new NotificationDispatcher(new MailboxNotificationSink()));
+        SplittableRandom random = new SplittableRandom(11);
+        long start = System.nanoTime();
+        for (int i = 0; i < studentCount; i++) {
+            String first = name(random, 2);
+            String last = name(random, 3);
+            String line = first + " " + last + " " + first.toLowerCase() + "." + last.toLowerCase() + i + "@bench.io";
+            if (tracker.addStudentLine(line) != null) {
+                throw new IllegalStateException("Rejected synthetic student " + line);
+            }
+        }
+        System.out.printf("registered %,d students in %d ms%n", studentCount, (System.nanoTime() - start) / 1_000_000);
+
+        String[] emails = new String[queries];
+        String[] firstNames = new String[queries];
+        for (int i = 0; i < queries; i++) {
+            Student student = tracker.getStudent(10000 + random.nextInt(studentCount));
+            emails[i] = student.getEmail();
+            firstNames[i] = student.getFirstName();
+        }
+        time("exact email", queries, i -> tracker.findByEmail(emails[i]) == null ? 0 : 1);
+        for (int letters = 1; letters <= 3; letters++) {
+            int length = letters;
+            time("email prefix " + letters, queries,
+                    i -> tracker.searchByEmail(emails[i].substring(0, length), null, 20).size());
+            time("name prefix " + letters, queries,
+                    i -> tracker.searchByName(firstNames[i].substring(0, length), 0, 20).size());
+            time("name prefix " + letters + " paged", queries,
+                    i -> tracker.searchByName(firstNames[i].substring(0, length), 10000 + studentCount / 2, 20).size());
+        }
+        tracker.shutdown();
+    }
+
+    private static String name(SplittableRandom random, int syllables) {
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < syllables; i++) {
+            name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+        return name.toString();
+    }
+
+    // Runs every query twice, the first time as warm-up, and reports the mean time of the second run.
+    private static void time(String label, int queries, Query query) {
+        long matches = 0;
+        long elapsed = 0;
+        for (int round = 0; round < 2; round++) {
+            matches = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < queries; i++) {
+                matches += query.run(i);
+            }
+            elapsed = System.nanoTime() - start;
+        }
+        System.out.printf("%-22s %8.1f us/query, %.1f matches/query%n", label, elapsed / 1e3 / queries,
+                (double) matches / queries);
+    }
+
+    private interface Query {
+        int run(int index);
+    }
+}
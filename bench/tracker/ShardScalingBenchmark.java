@@ -0,0 +1,94 @@
+package tracker;
+
+import java.util.SplittableRandom;
+/**
+ * Ingests points lines from 1..N threads into a single tracker and into a ShardedTracker with one shard per thread,
+ * reporting rows per second and the speed-up over one thread. Each thread submits rows for the students of its own
+ * shard, as a router in front of the shards would. Fails if the merged course totals do not match what was sent.
+ * Run with: java -cp <classes> tracker.ShardScalingBenchmark [students] [rows] [max threads]
+ */
+public class ShardScalingBenchmark {
+    public static void main(String[] args) throws Exception {
+        int studentCount = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int rowCount = args.length > 1 ? Integer.parseInt(args[1]) : 4_000_000;
+        int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        System.out.println("threads   single rows/s  speed-up   sharded rows/s  speed-up");
+        double singleBase = 0;
+        double shardedBase = 0;
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            double single = run(studentCount, rowCount, threads, false);
+            double sharded = run(studentCount, rowCount, threads, true);
+            if (threads == 1) {
+                singleBase = single;
+                shardedBase = sharded;
+            }
+            System.out.printf("%7d %15.0f %9.2f %16.0f %9.2f%n", threads,
+                    single, single / singleBase, sharded, sharded / shardedBase);
+        }
+    }
+
+    // Rows per second with the given number of threads.
+    private static double run(int studentCount, int rowCount, int threadCount, boolean sharded) throws Exception {
+        CourseCatalog catalog = CourseCatalog.defaults();
+        NotificationDispatcher dispatcher = new NotificationDispatcher(new MailboxNotificationSink());
+        Tracker tracker = sharded
+                ? new ShardedTracker(catalog, dispatcher, threadCount, false)
+                : new StudentTracker(catalog, dispatcher);
+        for (String line : new SyntheticData(1).students(studentCount)) {
+            if (tracker.addStudentLine(line) != null) {
+                throw new IllegalStateException("Rejected synthetic student " + line);
+            }
+        }
+
+        // Thread t sends rows for the ids t, t + threads, ... counted from the first id: shard t's students.
+        String[][] rows = new String[threadCount][];
+        long[] expectedSums = new long[catalog.size()];
+        for (int t = 0; t < threadCount; t++) {
+            SplittableRandom random = new SplittableRandom(t);
+            rows[t] = new String[rowCount / threadCount];
+            int[] scores = new int[catalog.size()];
+            int owned = (studentCount - t + threadCount - 1) / threadCount;
+            for (int i = 0; i < rows[t].length; i++) {
+                StringBuilder line = new StringBuilder().append(10000 + t + random.nextInt(owned) * threadCount);
+                for (int c = 0; c < scores.length; c++) {
+                    scores[c] = random.nextInt(10);
+                    expectedSums[c] += scores[c];
+                    line.append(' ').append(scores[c]);
+                }
+                rows[t][i] = line.toString();
+            }
+        }
+
+        Thread[] threads = new Thread[threadCount];
+        for (int t = 0; t < threadCount; t++) {
+            String[] lines = rows[t];
+            threads[t] = new Thread(() -> {
+                PointsParser parser = tracker.newPointsParser(false);
+                for (String line : lines) {
+                    if (tracker.submitPointsLine(line, parser) != Tracker.PointsStatus.UPDATED) {
+                        throw new IllegalStateException("Rejected synthetic points " + line);
+                    }
+                }
+            });
+        }
+        long start = System.nanoTime();
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        for (int c = 0; c < expectedSums.length; c++) {
+            if (tracker.getCourse(c).getGradeSum() != expectedSums[c]) {
+                throw new IllegalStateException(tracker.getCourse(c).getName() + ": expected " + expectedSums[c]
+                        + " points, the tracker holds " + tracker.getCourse(c).getGradeSum());
+            }
+        }
+        tracker.shutdown();
+        long submitted = (long) rows[0].length * threadCount;
+        return submitted * 1e9 / elapsed;
+    }
+}
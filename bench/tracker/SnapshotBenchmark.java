@@ -0,0 +1,105 @@
+package tracker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+/**
+ * Submits points on one thread, first alone, then while another thread keeps summarizing the courses from snapshots,
+ * then while it keeps listing every course's standings from snapshots, reporting submissions per second, reports per
+ * second and the mean time to open a snapshot. Each report sums every course twice from its snapshot and fails if
+ * the two sums differ; a standings report also fails if its standings do not add up to the same sum.
+ * Run with: java -cp <classes> tracker.SnapshotBenchmark [students] [submissions]
+ */
+public class SnapshotBenchmark {
+    public static void main(String[] args) throws Exception {
+        int studentCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int submissionCount = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+
+        System.out.println("readers      submissions/s    reports/s    open us");
+        run(studentCount, submissionCount, null);
+        run(studentCount, submissionCount, Report.SUMMARY);
+        run(studentCount, submissionCount, Report.STANDINGS);
+    }
+
+    private enum Report {
+        SUMMARY, STANDINGS
+    }
+
+    private static void run(int studentCount, int submissionCount, Report report) throws Exception {
+        boolean reading = report != null;
+        StudentTracker tracker = new StudentTracker(new NotificationDispatcher(new MailboxNotificationSink()));
+        Student[] students = new Student[studentCount];
+        for (int i = 0; i < studentCount; i++) {
+            Student student = tracker.newStudent();
+            student.applyCredentials("Bench Student student" + i + "@bench.io");
+            tracker.registerStudent(student);
+            students[i] = student;
+        }
+        List<Course> courses = new ArrayList<>(tracker.getCourseMap().values());
+        StatisticsEngine engine = tracker.getStatistics().getEngine();
+
+        AtomicBoolean writing = new AtomicBoolean(true);
+        long[] reports = new long[1];
+        long[] openNanos = new long[1];
+        Thread reader = new Thread(() -> {
+            while (writing.get()) {
+                long start = System.nanoTime();
+                try (TrackerSnapshot snapshot = tracker.openSnapshot()) {
+                    openNanos[0] += System.nanoTime() - start;
+                    long first = sum(snapshot, courses);
+                    long standings = 0;
+                    if (report == Report.SUMMARY) {
+                        engine.summarize(snapshot, courses);
+                    } else {
+                        for (Course course : courses) {
+                            for (Course.Standing standing : snapshot.getStandings(course)) {
+                                standings += standing.points();
+                            }
+                        }
+                    }
+                    long second = sum(snapshot, courses);
+                    if (first != second) {
+                        throw new IllegalStateException("Snapshot changed from " + first + " to " + second + " points");
+                    }
+                    if (report == Report.STANDINGS && standings != first) {
+                        throw new IllegalStateException("Standings hold " + standings + " points, not " + first);
+                    }
+                }
+                reports[0]++;
+            }
+        });
+        if (reading) {
+            reader.start();
+        }
+
+        SplittableRandom random = new SplittableRandom(1);
+        int[] scores = new int[courses.size()];
+        long start = System.nanoTime();
+        for (int i = 0; i < submissionCount; i++) {
+            for (int c = 0; c < scores.length; c++) {
+                scores[c] = random.nextInt(10);
+            }
+            tracker.submitPoints(students[random.nextInt(studentCount)], scores);
+        }
+        long elapsed = System.nanoTime() - start;
+        writing.set(false);
+        if (reading) {
+            reader.join();
+        }
+        System.out.printf("%-12s %14.0f %12.1f %10.1f%n", reading ? "1 " + report.name().toLowerCase() : "none",
+                submissionCount * 1e9 / elapsed, reports[0] * 1e9 / elapsed,
+                reports[0] == 0 ? 0.0 : openNanos[0] / 1e3 / reports[0]);
+        tracker.shutdown();
+    }
+
+    private static long sum(TrackerSnapshot snapshot, List<Course> courses) {
+        long total = 0;
+        for (Student student : snapshot.getStudents()) {
+            for (Course course : courses) {
+                total += snapshot.getPoints(student, course.getId());
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,52 @@
+package tracker;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.SplittableRandom;
+/**
+ * Times StatisticsEngine.summarize over a large restored cohort at parallelism 1, 2, 4... up to the processor count
+ * or the given maximum, and checks that every parallelism level produces the same summaries.
+ * Run with: java -cp <classes> tracker.StatisticsEngineBenchmark [students] [iterations] [max parallelism]
+ */
+public class StatisticsEngineBenchmark {
+    public static void main(String[] args) {
+        int studentCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        StudentTracker tracker = new StudentTracker(new NotificationDispatcher(new MailboxNotificationSink()));
+        int courseCount = tracker.getCatalog().size();
+        SplittableRandom random = new SplittableRandom(7);
+        int[] grades = new int[courseCount];
+        int[] submissions = new int[courseCount];
+        for (int i = 0; i < studentCount; i++) {
+            for (int c = 0; c < courseCount; c++) {
+                grades[c] = random.nextInt(3) == 0 ? 0 : random.nextInt(700);
+                submissions[c] = grades[c] == 0 ? 0 : 1;
+            }
+            Student student = tracker.restoreStudent(10000 + i, "Bench", "Student", "student" + i + "@bench.io");
+            student.restoreProgress(grades, submissions, new BitSet());
+        }
+
+        List<StatisticsEngine.CourseSummary> expected = null;
+        int maxParallelism = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        for (int parallelism = 1; parallelism <= maxParallelism; parallelism *= 2) {
+            try (StatisticsEngine engine = new StatisticsEngine(parallelism, StatisticsEngine.DEFAULT_SERIAL_THRESHOLD)) {
+                long best = Long.MAX_VALUE;
+                for (int i = 0; i < iterations; i++) {
+                    long start = System.nanoTime();
+                    List<StatisticsEngine.CourseSummary> summaries =
+                            engine.summarize(tracker.getStudentIndex().values(), tracker.getCourseMap().values());
+                    best = Math.min(best, System.nanoTime() - start);
+                    if (expected == null) {
+                        expected = summaries;
+                    } else if (!expected.equals(summaries)) {
+                        throw new IllegalStateException("Parallelism " + parallelism + " changed the summaries");
+                    }
+                }
+                System.out.printf("parallelism %2d: %,d students in %.1f ms%n", parallelism, studentCount, best / 1e6);
+            }
+        }
+        expected.forEach(System.out::println);
+        tracker.shutdown();
+    }
+}
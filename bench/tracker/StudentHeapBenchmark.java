@@ -0,0 +1,61 @@
+package tracker;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+/**
+ * Measures the retained heap per Student by allocating a large cohort and comparing used heap before and after,
+ * and how long a full collection takes with the cohort live. With --off-heap, points and submission counts
+ * go to an OffHeapStudentStore and its direct memory is reported separately.
+ * Run with: java -cp <classes> tracker.StudentHeapBenchmark [students] [--off-heap]
+ */
+public class StudentHeapBenchmark {
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        boolean offHeap = args.length > 1 && args[1].equals("--off-heap");
+        CourseCatalog catalog = CourseCatalog.defaults();
+        Course[] courses = new Course[catalog.size()];
+        for (int id = 0; id < courses.length; id++) {
+            courses[id] = new Course(id, catalog.getName(id), catalog.getRequiredCredits(id));
+        }
+        OffHeapStudentStore store = offHeap ? new OffHeapStudentStore(10000, courses.length) : null;
+        String[] ids = new String[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = String.valueOf(10000 + i);
+        }
+
+        long before = usedHeap();
+        Student[] students = new Student[count];
+        for (int i = 0; i < count; i++) {
+            students[i] = new Student(ids[i], courses, store);
+        }
+        long after = usedHeap();
+
+        long gcStart = System.nanoTime();
+        long collectionsBefore = collectionCount();
+        System.gc();
+        long gcNanos = System.nanoTime() - gcStart;
+
+        System.out.printf("%d students%s: %.1f MB heap, %.1f bytes per student, %.1f MB off-heap, full GC %.1f ms (%d collections)%n",
+                count, offHeap ? " (off-heap progress)" : "", (after - before) / (1024.0 * 1024.0),
+                (double) (after - before) / count, store == null ? 0 : store.getOffHeapBytes() / (1024.0 * 1024.0),
+                gcNanos / 1e6, collectionCount() - collectionsBefore);
+        // Keeps the cohort reachable until after the measurement.
+        System.out.println(students[count - 1].getId());
+    }
+
+    private static long collectionCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, collector.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
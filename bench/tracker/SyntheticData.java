@@ -0,0 +1,60 @@
+package tracker;
+
+import java.util.SplittableRandom;
+/**
+ * Deterministic generator of student credential lines and points lines for benchmarks.
+ * The same seed always produces the same data set.
+ */
+public class SyntheticData {
+    private static final String[] FIRST_NAMES = {"John", "Jane", "Ann", "Robert", "Mary", "Al", "Bo", "Eve"};
+    private static final String[] LAST_NAMES = {"Doe", "Spark", "Lee", "Van de Graaff", "O'Neil", "Smith-Jones"};
+
+    private final SplittableRandom random;
+    private final int courseCount;
+
+    public SyntheticData(long seed) {
+        this(seed, CourseCatalog.defaults().size());
+    }
+
+    public SyntheticData(long seed, int courseCount) {
+        this.random = new SplittableRandom(seed);
+        this.courseCount = courseCount;
+    }
+
+    // A catalog of the given size; every course needs 500 points, so the synthetic 700 point scores complete it.
+    public static CourseCatalog catalog(int courseCount) {
+        String[] names = new String[courseCount];
+        int[] credits = new int[courseCount];
+        for (int i = 0; i < courseCount; i++) {
+            names[i] = "Course" + (i + 1);
+            credits[i] = 500;
+        }
+        return new CourseCatalog(names, credits);
+    }
+
+    // Lines in the 'add students' format, each with a unique email.
+    public String[] students(int count) {
+        String[] lines = new String[count];
+        for (int i = 0; i < count; i++) {
+            lines[i] = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                    + LAST_NAMES[random.nextInt(LAST_NAMES.length)] + " student" + i + "@bench.io";
+        }
+        return lines;
+    }
+
+    // Lines in the 'add points' format for students with ids firstId..firstId+studentCount-1.
+    // About one score in completionOneIn is large enough to complete the course on its own.
+    public String[] points(int count, int firstId, int studentCount, int completionOneIn) {
+        String[] lines = new String[count];
+        StringBuilder line = new StringBuilder(32);
+        for (int i = 0; i < count; i++) {
+            line.setLength(0);
+            line.append(firstId + random.nextInt(studentCount));
+            for (int c = 0; c < courseCount; c++) {
+                line.append(' ').append(random.nextInt(completionOneIn) == 0 ? 700 : random.nextInt(20));
+            }
+            lines[i] = line.toString();
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,112 @@
+package tracker;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+/**
+ * JMH benchmarks for ingesting a whole synthetic data set into a fresh tracker: registering every student, applying
+ * min(students * 10, maxSubmissions) points rows, and applying rows that each complete a course.
+ * Each invocation loads the full data set once, so the score is the time per data set, not per line.
+ * Run with: java -jar bench/target/benchmarks.jar TrackerIngestBenchmark [-p students=1000,10000]
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TrackerIngestBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int students;
+
+    @Param("10000000")
+    public int maxSubmissions;
+
+    // 0 keeps the default catalog; any other count uses a synthetic catalog of that many courses.
+    @Param("0")
+    public int courses;
+
+    private CourseCatalog catalog;
+    private String[] studentLines;
+    private String[] pointsLines;
+    private String[] completionLines;
+    private StudentTracker tracker;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        catalog = courses == 0 ? CourseCatalog.defaults() : SyntheticData.catalog(courses);
+        SyntheticData data = new SyntheticData(students, catalog.size());
+        int submissions = Math.min(maxSubmissions, students * 10);
+        studentLines = data.students(students);
+        pointsLines = data.points(submissions, Tracker.FIRST_ID, students, 200);
+        completionLines = data.points(Math.min(submissions, 100_000), Tracker.FIRST_ID, students, 1);
+    }
+
+    // Every benchmark starts from an empty tracker; the points benchmarks also need the students registered.
+    @Setup(Level.Iteration)
+    public void newTracker(BenchmarkParams params) {
+        tracker = newTracker(catalog);
+        if (!params.getBenchmark().endsWith(".addStudent")) {
+            addStudents(tracker, studentLines);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void shutdown() {
+        tracker.shutdown();
+    }
+
+    @Benchmark
+    public int addStudent() {
+        addStudents(tracker, studentLines);
+        return tracker.getStudentCount();
+    }
+
+    @Benchmark
+    public int addSubmission() {
+        addPoints(tracker, pointsLines);
+        return tracker.getPendingNotificationCount();
+    }
+
+    // Every score completes its course, so each row goes through the notification path.
+    @Benchmark
+    public int checkCourseCompletion() {
+        addPoints(tracker, completionLines);
+        return tracker.getPendingNotificationCount();
+    }
+
+    static StudentTracker newTracker(CourseCatalog catalog) {
+        return new StudentTracker(catalog, new NotificationDispatcher(new MailboxNotificationSink()));
+    }
+
+    static void addStudents(StudentTracker tracker, String[] lines) {
+        for (String line : lines) {
+            Student student = tracker.newStudent();
+            if (!student.addStudent(line) || !tracker.registerStudent(student)) {
+                throw new IllegalStateException("Rejected synthetic student " + line);
+            }
+        }
+    }
+
+    static void addPoints(StudentTracker tracker, String[] lines) {
+        PointsParser parser = tracker.newPointsParser(false);
+        for (String line : lines) {
+            if (!parser.parse(line)) {
+                throw new IllegalStateException("Rejected synthetic points " + line);
+            }
+            tracker.submitPoints(tracker.getStudent(parser.getStudentId()), parser.getScores());
+        }
+    }
+}
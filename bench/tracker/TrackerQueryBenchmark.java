@@ -0,0 +1,110 @@
+package tracker;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+/**
+ * JMH benchmarks for the read paths of a tracker loaded with a synthetic data set: rankings, course details,
+ * student lookups and the full listing. Stdout is discarded while they run, so the printing benchmarks measure
+ * formatting rather than the terminal.
+ * Run with: java -jar bench/target/benchmarks.jar TrackerQueryBenchmark [-p students=1000,10000]
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TrackerQueryBenchmark {
+    private static final PrintStream CONSOLE = System.out;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int students;
+
+    @Param("10000000")
+    public int maxSubmissions;
+
+    // 0 keeps the default catalog; any other count uses a synthetic catalog of that many courses.
+    @Param("0")
+    public int courses;
+
+    private StudentTracker tracker;
+    private Statistics statistics;
+    private CourseView firstCourse;
+    private TrackerConsole console;
+    private String[] ids;
+    private int nextId;
+
+    @Setup(Level.Trial)
+    public void load() {
+        CourseCatalog catalog = courses == 0 ? CourseCatalog.defaults() : SyntheticData.catalog(courses);
+        SyntheticData data = new SyntheticData(students, catalog.size());
+        int submissions = Math.min(maxSubmissions, students * 10);
+        tracker = TrackerIngestBenchmark.newTracker(catalog);
+        TrackerIngestBenchmark.addStudents(tracker, data.students(students));
+        TrackerIngestBenchmark.addPoints(tracker, data.points(submissions, Tracker.FIRST_ID, students, 200));
+        TrackerIngestBenchmark.addPoints(tracker,
+                data.points(Math.min(submissions, 100_000), Tracker.FIRST_ID, students, 1));
+        statistics = tracker.getStatistics();
+        firstCourse = tracker.getCourse(0);
+        console = new TrackerConsole(tracker);
+        ids = new String[Math.min(students, 100_000)];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = String.valueOf(Tracker.FIRST_ID + (int) ((long) i * students / ids.length));
+        }
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        System.setOut(CONSOLE);
+        tracker.shutdown();
+    }
+
+    @Benchmark
+    public void printAllCourseRankings() {
+        statistics.printAllCourseRankings();
+    }
+
+    // Nothing changes between calls, so after the first one every call is served from the ranking cache.
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Statistics.Rankings computeRankings() {
+        return statistics.computeRankings();
+    }
+
+    @Benchmark
+    public void printCourseInfo() {
+        statistics.printCourseInfo(firstCourse);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Student getStudent() {
+        String id = ids[nextId];
+        nextId = nextId + 1 == ids.length ? 0 : nextId + 1;
+        Student student = tracker.getStudent(id);
+        if (student == null) {
+            throw new IllegalStateException("Missing student " + id);
+        }
+        return student;
+    }
+
+    @Benchmark
+    public void printStudents() {
+        console.printStudents();
+    }
+}
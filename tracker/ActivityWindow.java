@@ -0,0 +1,108 @@
+package tracker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A ring of fixed-width time buckets holding the count and sum of values recorded in each.
+ * A bucket is reused once its slot comes round again, so memory stays fixed however long the tracker runs
+ * and totals over a window cost one pass over the ring.
+ * Recording takes no lock, since every course records every submission: the thread that first needs a slot for a
+ * newer bucket claims it with a CAS and clears it, and values are added atomically. A value recorded exactly while
+ * its slot is being reused for the bucket one full ring later may be lost or land in the newer bucket.
+ */
+public class ActivityWindow {
+    // Marks a slot whose counters are being cleared for a newer bucket; recorders wait until it is done.
+    private static final long CLAIMED = -2;
+
+    private final long bucketMillis;
+    // Bucket start as a multiple of bucketMillis, -1 while the slot is unused, or CLAIMED while it is being reset.
+    private final AtomicLongArray epochs;
+    // Count and sum of each slot's bucket, at 2 * slot and 2 * slot + 1.
+    private final AtomicLongArray values;
+
+    public ActivityWindow(long bucketMillis, int bucketCount) {
+        this.bucketMillis = bucketMillis;
+        this.epochs = new AtomicLongArray(bucketCount);
+        this.values = new AtomicLongArray(2 * bucketCount);
+        for (int slot = 0; slot < bucketCount; slot++) {
+            epochs.set(slot, -1);
+        }
+    }
+
+    // Values older than the ring's span, relative to the newest bucket in their slot, are dropped.
+    public void record(long timestamp, long value) {
+        long epoch = timestamp / bucketMillis;
+        int slot = (int) (epoch % epochs.length());
+        long current;
+        while ((current = epochs.get(slot)) != epoch) {
+            if (current == CLAIMED) {
+                Thread.onSpinWait();
+            } else if (current > epoch) {
+                return;
+            } else if (epochs.compareAndSet(slot, current, CLAIMED)) {
+                values.set(2 * slot, 0);
+                values.set(2 * slot + 1, 0);
+                epochs.set(slot, epoch);
+            }
+        }
+        values.incrementAndGet(2 * slot);
+        values.addAndGet(2 * slot + 1, value);
+    }
+
+    // Totals of the buckets overlapping the windowMillis ending at now, including the current partial bucket.
+    public Totals totals(long now, long windowMillis) {
+        long newest = now / bucketMillis;
+        long oldest = newest - Math.min(epochs.length(), Math.max(1, windowMillis / bucketMillis)) + 1;
+        long count = 0;
+        long sum = 0;
+        for (int slot = 0; slot < epochs.length(); slot++) {
+            long epoch = epochs.get(slot);
+            if (epoch >= oldest && epoch <= newest) {
+                count += values.get(2 * slot);
+                sum += values.get(2 * slot + 1);
+            }
+        }
+        return new Totals(count, sum);
+    }
+
+    public long getBucketMillis() {
+        return bucketMillis;
+    }
+
+    public long getSpanMillis() {
+        return bucketMillis * epochs.length();
+    }
+
+    // The buckets in use, for saving in a snapshot; journal snapshots hold off recording while they read them.
+    List<Bucket> getBuckets() {
+        List<Bucket> buckets = new ArrayList<>();
+        for (int slot = 0; slot < epochs.length(); slot++) {
+            long epoch = epochs.get(slot);
+            if (epoch >= 0) {
+                buckets.add(new Bucket(epoch, values.get(2 * slot), values.get(2 * slot + 1)));
+            }
+        }
+        return buckets;
+    }
+
+    // Called while recovering, before anything records.
+    void restoreBucket(Bucket bucket) {
+        int slot = (int) (bucket.epoch() % epochs.length());
+        if (epochs.get(slot) < bucket.epoch()) {
+            epochs.set(slot, bucket.epoch());
+            values.set(2 * slot, bucket.count());
+            values.set(2 * slot + 1, bucket.sum());
+        }
+    }
+
+    public record Totals(long count, long sum) {
+        public double average() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+    }
+
+    record Bucket(long epoch, long count, long sum) {
+    }
+}
@@ -0,0 +1,23 @@
+package tracker;
+
+import java.util.List;
+/**
+ * A notification sink that prints each batch to stdout with a single write.
+ */
+public class ConsoleNotificationSink implements NotificationSink {
+
+    @Override
+    public void deliver(List<Notification> batch) {
+        StringBuilder messages = new StringBuilder(batch.size() * 128);
+        for (Notification notification : batch) {
+            messages.append(notification.getMessage());
+        }
+        System.out.print(messages);
+        System.out.flush();
+    }
+
+    @Override
+    public boolean writesToConsole() {
+        return true;
+    }
+}
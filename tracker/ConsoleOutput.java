@@ -0,0 +1,20 @@
+package tracker;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+/**
+ * Buffered access to standard output for commands that print many lines at once.
+ * System.out flushes on every println; a writer from this class flushes only when its buffer fills
+ * or when the caller flushes it, which must happen before anything else is printed or read.
+ */
+public final class ConsoleOutput {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private ConsoleOutput() {
+    }
+
+    public static PrintWriter open() {
+        return new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out), BUFFER_SIZE), false);
+    }
+}
@@ -1,52 +1,248 @@
 package tracker;
 
-import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 /**
  * A class representing a course in the system.
  * Contains information about the course title and the number of credits required for completion.
+ * Enrollment and aggregates may be updated from several threads at once.
+ * A walk of the live leaderboard is not atomic: a student whose points change during the walk moves to a new entry,
+ * so the walk may meet them twice or, having passed the new entry, not at all. Listings that must be exact read the
+ * course through a TrackerSnapshot.
  */
-public class Course {
+public class Course implements CourseView {
+    // Points descending, then id: the order of the leaderboard and of every listing drawn from it.
+    public static final Comparator<Standing> STANDING_ORDER = Comparator.naturalOrder();
+
+    private final int id;
     private String name;
     private int requiredCredits;
-    private List<Student> enrolled;
-    private List<Integer> submissionHistory;
+    // Enrolled students ordered by points descending, then id; a student is only here once they have points.
+    private final NavigableSet<Standing> leaderboard;
+    private final AtomicInteger enrolledCount;
+    // Running aggregates over every submitted assignment, kept instead of the raw history.
+    private final LongAdder submissionCount;
+    private final LongAdder gradeSum;
+    private final LongAdder gradeSquareSum;
+    private final AtomicInteger minGrade;
+    private final AtomicInteger maxGrade;
+    // Distribution of single assignment scores, and of enrolled students' progress as a percentage of requiredCredits.
+    private final PointsHistogram scoreHistogram;
+    private final PointsHistogram completionHistogram;
+    // Enrolled students' points by histogram bucket, for counts above a threshold without walking the leaderboard.
+    private final PointsIndex pointsIndex;
+    // Bumped after every change to enrollment or aggregates, so readers can tell whether cached results are stale.
+    private final LongAdder modificationCount;
+    // Recent submissions by minute for the last hour and by hour for the last week.
+    private final ActivityWindow minuteActivity;
+    private final ActivityWindow hourActivity;
 
-    public Course(String name, int requiredCredits) {
+    public Course(int id, String name, int requiredCredits) {
+        this.id = id;
         this.name = name;
         this.requiredCredits = requiredCredits;
-        this.submissionHistory = new ArrayList<>();
-        this.enrolled = new ArrayList<>();
+        // Natural order, so the skip list compares entries directly instead of through a comparator.
+        this.leaderboard = new ConcurrentSkipListSet<>();
+        this.enrolledCount = new AtomicInteger();
+        this.submissionCount = new LongAdder();
+        this.gradeSum = new LongAdder();
+        this.gradeSquareSum = new LongAdder();
+        this.minGrade = new AtomicInteger(Integer.MAX_VALUE);
+        this.maxGrade = new AtomicInteger(Integer.MIN_VALUE);
+        this.scoreHistogram = new PointsHistogram();
+        this.completionHistogram = new PointsHistogram();
+        this.pointsIndex = new PointsIndex();
+        this.modificationCount = new LongAdder();
+        this.minuteActivity = new ActivityWindow(60_000L, 60);
+        this.hourActivity = new ActivityWindow(3_600_000L, 168);
     }
 
     public void addEntry(int assignmentGrade) {
-        submissionHistory.add(assignmentGrade);
+        addEntry(assignmentGrade, System.currentTimeMillis());
+    }
+
+    public void addEntry(int assignmentGrade, long timestamp) {
+        minuteActivity.record(timestamp, assignmentGrade);
+        hourActivity.record(timestamp, assignmentGrade);
+        scoreHistogram.record(assignmentGrade);
+        minGrade.accumulateAndGet(assignmentGrade, Math::min);
+        maxGrade.accumulateAndGet(assignmentGrade, Math::max);
+        gradeSum.add(assignmentGrade);
+        gradeSquareSum.add((long) assignmentGrade * assignmentGrade);
+        submissionCount.increment();
+        modificationCount.increment();
+    }
+
+    // Moves the student to their new position; callers serialize updates per student.
+    // The new entry goes in before the old one comes out, so the student is never absent from the leaderboard.
+    public void updateStanding(Student student, int oldPoints, int newPoints) {
+        leaderboard.add(new Standing(student, newPoints, student.getNumericId()));
+        if (oldPoints > 0) {
+            leaderboard.remove(new Standing(student, oldPoints, student.getNumericId()));
+            completionHistogram.remove(completionPercent(oldPoints));
+            pointsIndex.move(oldPoints, newPoints);
+        } else {
+            enrolledCount.incrementAndGet();
+            modificationCount.increment();
+            pointsIndex.add(newPoints);
+        }
+        completionHistogram.record(completionPercent(newPoints));
     }
 
-    public void enrollStudent(Student student) {
-        this.enrolled.add(student);
+    // Reloads aggregates saved in a snapshot into a freshly created course.
+    void restoreAggregates(long count, long sum, long squareSum, int min, int max) {
+        submissionCount.add(count);
+        gradeSum.add(sum);
+        gradeSquareSum.add(squareSum);
+        if (count > 0) {
+            minGrade.set(min);
+            maxGrade.set(max);
+        }
+        modificationCount.increment();
     }
 
+    void restoreScoreHistogram(int bucket, long count) {
+        scoreHistogram.restoreBucket(bucket, count);
+    }
+
+    @Override
     public String getName() {
         return name;
     }
 
+    @Override
     public int getRequiredCredits() {
         return requiredCredits;
     }
 
-    public List<Student> getEnrolled() {
-        return enrolled;
+    // The course's id in the catalog, which indexes per-student arrays.
+    @Override
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    public int getEnrolledCount() {
+        return enrolledCount.get();
+    }
+
+    // Copies, so callers can merge them with other courses' or shards' histograms.
+    @Override
+    public PointsHistogram getScoreHistogram() {
+        return scoreHistogram.copy();
+    }
+
+    @Override
+    public PointsHistogram getCompletionHistogram() {
+        return completionHistogram.copy();
+    }
+
+    @Override
+    public long getModificationCount() {
+        return modificationCount.sum();
+    }
+
+    public NavigableSet<Standing> getLeaderboard() {
+        return Collections.unmodifiableNavigableSet(leaderboard);
+    }
+
+    // The leaderboard in STANDING_ORDER, for callers that only walk it.
+    @Override
+    public Iterable<Standing> getStandings() {
+        return getLeaderboard();
+    }
+
+    // Standings with points from low to high inclusive, in STANDING_ORDER, found in logarithmic time.
+    @Override
+    public Iterable<Standing> getStandingsBetween(int low, int high) {
+        if (low > high) {
+            return List.of();
+        }
+        return Collections.unmodifiableNavigableSet(leaderboard.subSet(
+                new Standing(null, high, Integer.MIN_VALUE), true, new Standing(null, low, Integer.MAX_VALUE), true));
+    }
+
+    // Enrolled students with at least the given points. Whole buckets come from the Fenwick index; only above 4096
+    // points, where a bucket spans several values, are students in the bucket the threshold splits counted one by one.
+    @Override
+    public long countAtLeast(int points) {
+        if (points <= 1) {
+            return getEnrolledCount();
+        }
+        long count = pointsIndex.countAboveBucketOf(points);
+        if (PointsIndex.bucketLow(points) == points) {
+            return count + pointsIndex.countInBucketOf(points);
+        }
+        for (Standing ignored : getStandingsBetween(points, PointsIndex.bucketHigh(points))) {
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public long getSubmissionCount() {
+        return submissionCount.sum();
+    }
+
+    @Override
+    public long getGradeSum() {
+        return gradeSum.sum();
+    }
+
+    @Override
+    public long getGradeSquareSum() {
+        return gradeSquareSum.sum();
+    }
+
+    @Override
+    public int getMinGrade() {
+        return getSubmissionCount() == 0 ? 0 : minGrade.get();
+    }
+
+    @Override
+    public int getMaxGrade() {
+        return getSubmissionCount() == 0 ? 0 : maxGrade.get();
+    }
+
+    // Submissions in the window ending at now; windows up to an hour use minute buckets, longer ones hour buckets.
+    @Override
+    public ActivityWindow.Totals getRecentActivity(long now, long windowMillis) {
+        ActivityWindow window = windowMillis <= minuteActivity.getSpanMillis() ? minuteActivity : hourActivity;
+        return window.totals(now, windowMillis);
     }
 
-    public List<Integer> getSubmissionHistory() {
-        return submissionHistory;
+    ActivityWindow getMinuteActivity() {
+        return minuteActivity;
     }
 
-    public double getAverageGrade() {
-        return submissionHistory.stream()
-                .mapToInt(Integer::intValue)
-                .average()
-                .orElse(0);
+    ActivityWindow getHourActivity() {
+        return hourActivity;
+    }
+
+    // An immutable leaderboard entry, so concurrent readers never see a key change under them.
+    // Points and student key are packed into one sort key, so an ordering step is a single long comparison: the
+    // complemented points in the high half put more points first, the student key flipped to unsigned breaks ties.
+    public record Standing(Student student, long sortKey) implements Comparable<Standing> {
+        public Standing(Student student, int points, int studentKey) {
+            this(student, (long) ~points << 32 | Integer.toUnsignedLong(studentKey ^ Integer.MIN_VALUE));
+        }
+
+        public int points() {
+            return ~(int) (sortKey >> 32);
+        }
+
+        public int studentKey() {
+            return (int) sortKey ^ Integer.MIN_VALUE;
+        }
+
+        @Override
+        public int compareTo(Standing other) {
+            return Long.compare(sortKey, other.sortKey);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,98 @@
+package tracker;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+/**
+ * The courses offered by the tracker, each with a dense id from 0 to size() - 1.
+ * Ids index the per-student and per-course arrays, so the order of a catalog must not change
+ * once data has been recorded with it; new courses are added at the end.
+ * A catalog file has one "name=required credits" line per course; blank lines and lines starting with '#' are skipped.
+ */
+public class CourseCatalog {
+    // Journal records store course ids and course counts in one byte.
+    public static final int MAX_COURSES = 255;
+
+    private static final CourseCatalog DEFAULTS = new CourseCatalog(
+            new String[] {"Java", "DSA", "Databases", "Spring"},
+            new int[] {600, 400, 480, 550});
+
+    private final String[] names;
+    private final int[] requiredCredits;
+    private final Map<String, Integer> idsByName;
+
+    public CourseCatalog(String[] names, int[] requiredCredits) {
+        if (names.length == 0 || names.length > MAX_COURSES || names.length != requiredCredits.length) {
+            throw new IllegalArgumentException("A catalog needs 1 to " + MAX_COURSES + " courses, each with its credits");
+        }
+        this.names = names.clone();
+        this.requiredCredits = requiredCredits.clone();
+        this.idsByName = new HashMap<>();
+        for (int id = 0; id < names.length; id++) {
+            if (names[id].isBlank() || requiredCredits[id] <= 0) {
+                throw new IllegalArgumentException("Invalid course " + names[id] + "=" + requiredCredits[id]);
+            }
+            if (idsByName.put(names[id], id) != null) {
+                throw new IllegalArgumentException("Duplicate course " + names[id]);
+            }
+        }
+        // Like the original statistics menu, a course also answers to its all-lowercase name, but to no other casing.
+        for (int id = 0; id < names.length; id++) {
+            idsByName.putIfAbsent(names[id].toLowerCase(Locale.ROOT), id);
+        }
+    }
+
+    // The four courses the tracker has always offered.
+    public static CourseCatalog defaults() {
+        return DEFAULTS;
+    }
+
+    public static CourseCatalog load(Path file) throws IOException {
+        List<String> names = new ArrayList<>();
+        List<Integer> credits = new ArrayList<>();
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            int separator = line.lastIndexOf('=');
+            String value = separator < 0 ? "" : line.substring(separator + 1).trim();
+            if (separator <= 0 || !Validator.isDigits(value) || value.length() > 9) {
+                throw new IOException(file + ":" + lineNumber + ": expected name=required credits");
+            }
+            names.add(line.substring(0, separator).trim());
+            credits.add(Integer.parseInt(value));
+        }
+        try {
+            return new CourseCatalog(names.toArray(new String[0]), credits.stream().mapToInt(Integer::intValue).toArray());
+        } catch (IllegalArgumentException e) {
+            throw new IOException(file + ": " + e.getMessage());
+        }
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    public String getName(int id) {
+        return names[id];
+    }
+
+    public int getRequiredCredits(int id) {
+        return requiredCredits[id];
+    }
+
+    // The id of the course with exactly this name or its lowercase form, or -1 if there is no such course.
+    public int findId(String name) {
+        Integer id = idsByName.get(name);
+        return id == null ? -1 : id;
+    }
+}
@@ -0,0 +1,90 @@
+package tracker;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+/**
+ * What statistics read from a course: its catalog entry, aggregates, histograms and standings.
+ * Course keeps them for one tracker; ShardedCourse adds them up across the shards of a ShardedTracker.
+ */
+public interface CourseView {
+
+    int getId();
+
+    String getName();
+
+    int getRequiredCredits();
+
+    int getEnrolledCount();
+
+    long getSubmissionCount();
+
+    long getGradeSum();
+
+    long getGradeSquareSum();
+
+    int getMinGrade();
+
+    int getMaxGrade();
+
+    PointsHistogram getScoreHistogram();
+
+    PointsHistogram getCompletionHistogram();
+
+    // Changes whenever enrollment or aggregates do; caches compare it to tell when they are stale.
+    long getModificationCount();
+
+    // Submissions in the window ending at now.
+    ActivityWindow.Totals getRecentActivity(long now, long windowMillis);
+
+    // Enrolled students in Course.STANDING_ORDER, for callers that only walk them.
+    Iterable<Course.Standing> getStandings();
+
+    // Standings with points from low to high inclusive, in Course.STANDING_ORDER.
+    Iterable<Course.Standing> getStandingsBetween(int low, int high);
+
+    // Enrolled students with at least the given points.
+    long countAtLeast(int points);
+
+    // Points as a whole percentage of requiredCredits; above 100 once the course is complete.
+    default int completionPercent(int points) {
+        return (int) Math.min(Integer.MAX_VALUE, points * 100L / getRequiredCredits());
+    }
+
+    default double getAverageGrade() {
+        long count = getSubmissionCount();
+        return count == 0 ? 0 : (double) getGradeSum() / count;
+    }
+
+    default double getGradeVariance() {
+        long count = getSubmissionCount();
+        if (count == 0) {
+            return 0;
+        }
+        double average = (double) getGradeSum() / count;
+        return Math.max(0, (double) getGradeSquareSum() / count - average * average);
+    }
+
+    // The student's place in the standings, counting students with the same points as tied; 0 if not enrolled.
+    default long rankOf(Student student) {
+        int points = student.getGrade(getId());
+        return points == 0 ? 0 : countAtLeast(points + 1) + 1;
+    }
+
+    // The leading students of the live standings, each listed once even if met twice while moving.
+    default List<Student> getTopStudents(int limit) {
+        List<Student> topStudents = new ArrayList<>(Math.min(limit, 1024));
+        Set<Student> listed = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Course.Standing standing : getStandings()) {
+            if (topStudents.size() == limit) {
+                break;
+            }
+            if (listed.add(standing.student())) {
+                topStudents.add(standing.student());
+            }
+        }
+        return topStudents;
+    }
+}
@@ -0,0 +1,33 @@
+package tracker;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+/**
+ * A notification sink that appends every batch to a spool file for a mail relay to pick up.
+ */
+public class FileSpoolNotificationSink implements NotificationSink {
+    private final BufferedWriter writer;
+
+    public FileSpoolNotificationSink(Path spoolFile) throws IOException {
+        this.writer = Files.newBufferedWriter(spoolFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public synchronized void deliver(List<Notification> batch) throws IOException {
+        for (Notification notification : batch) {
+            writer.write(notification.getMessage());
+        }
+        writer.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+}
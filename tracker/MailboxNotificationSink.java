@@ -0,0 +1,32 @@
+package tracker;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+/**
+ * A local stand-in for an SMTP relay that keeps delivered messages in memory.
+ * It can be told to fail a number of upcoming deliveries to exercise the dispatcher's retries.
+ */
+public class MailboxNotificationSink implements NotificationSink {
+    private final List<String> messages = new ArrayList<>();
+    private int failuresToInject;
+
+    @Override
+    public synchronized void deliver(List<Notification> batch) throws IOException {
+        if (failuresToInject > 0) {
+            failuresToInject--;
+            throw new IOException("Mailbox unavailable.");
+        }
+        for (Notification notification : batch) {
+            messages.add(notification.getMessage());
+        }
+    }
+
+    public synchronized void failNextDeliveries(int count) {
+        this.failuresToInject = count;
+    }
+
+    public synchronized List<String> getMessages() {
+        return new ArrayList<>(messages);
+    }
+}
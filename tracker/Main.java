@@ -1,8 +1,202 @@
 package tracker;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import javax.management.JMException;
+
 public class Main {
+    private static final String USAGE =
+            "Usage: [--data-dir <dir>] [--notify-spool <file>] [--import <students file> [<points file>]] [--http <port>]"
+            + " [--courses <catalog file>] [--parallelism <threads>] [--off-heap] [--shards <count>]";
+
     public static void main(String[] args) {
-        StudentTracker studentTracker = new StudentTracker();
-        studentTracker.start();
+        List<String> importFiles = new ArrayList<>();
+        String spoolFile = null;
+        String dataDirectory = null;
+        int httpPort = -1;
+        String catalogFile = null;
+        int parallelism = 0;
+        boolean offHeap = false;
+        int shardCount = 1;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--import" -> {
+                    while (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                        importFiles.add(args[++i]);
+                    }
+                    if (importFiles.isEmpty() || importFiles.size() > 2) {
+                        System.out.println(USAGE);
+                        return;
+                    }
+                }
+                case "--notify-spool" -> {
+                    if (i + 1 == args.length) {
+                        System.out.println(USAGE);
+                        return;
+                    }
+                    spoolFile = args[++i];
+                }
+                case "--data-dir" -> {
+                    if (i + 1 == args.length) {
+                        System.out.println(USAGE);
+                        return;
+                    }
+                    dataDirectory = args[++i];
+                }
+                case "--courses" -> {
+                    if (i + 1 == args.length) {
+                        System.out.println(USAGE);
+                        return;
+                    }
+                    catalogFile = args[++i];
+                }
+                case "--off-heap" -> offHeap = true;
+                case "--parallelism" -> {
+                    if (i + 1 == args.length || !Validator.isDigits(args[i + 1]) || args[i + 1].length() > 4
+                            || Integer.parseInt(args[i + 1]) == 0) {
+                        System.out.println(USAGE);
+                        return;
+                    }
+                    parallelism = Integer.parseInt(args[++i]);
+                }
+                case "--shards" -> {
+                    if (i + 1 == args.length || !Validator.isDigits(args[i + 1]) || args[i + 1].length() > 3
+                            || Integer.parseInt(args[i + 1]) == 0) {
+                        System.out.println(USAGE);
+                        return;
+                    }
+                    shardCount = Integer.parseInt(args[++i]);
+                }
+                case "--http" -> {
+                    if (i + 1 == args.length || !Validator.isDigits(args[i + 1]) || args[i + 1].length() > 5
+                            || Integer.parseInt(args[i + 1]) > 65535) {
+                        System.out.println(USAGE);
+                        return;
+                    }
+                    httpPort = Integer.parseInt(args[++i]);
+                }
+                default -> {
+                    System.out.println(USAGE);
+                    return;
+                }
+            }
+        }
+
+        if (shardCount > 1 && dataDirectory != null) {
+            System.out.println("--data-dir cannot be combined with --shards.");
+            return;
+        }
+
+        CourseCatalog catalog = CourseCatalog.defaults();
+        if (catalogFile != null) {
+            try {
+                catalog = CourseCatalog.load(Path.of(catalogFile));
+            } catch (IOException e) {
+                System.out.println("Cannot load course catalog: " + e.getMessage());
+                return;
+            }
+        }
+
+        Tracker studentTracker;
+        // The tracker a journal attaches to; --data-dir was refused with --shards above, so it is always a single one.
+        StudentTracker singleTracker = null;
+        try {
+            NotificationSink sink = spoolFile == null
+                    ? new ConsoleNotificationSink()
+                    : new FileSpoolNotificationSink(Path.of(spoolFile));
+            NotificationDispatcher dispatcher = new NotificationDispatcher(sink);
+            if (shardCount > 1) {
+                studentTracker = new ShardedTracker(catalog, dispatcher, shardCount, offHeap);
+            } else {
+                singleTracker = new StudentTracker(catalog, dispatcher, offHeap);
+                studentTracker = singleTracker;
+            }
+        } catch (IOException e) {
+            System.out.println("Cannot open notification spool: " + e.getMessage());
+            return;
+        }
+
+        try {
+            TrackerMetricsBean.register(studentTracker);
+        } catch (JMException e) {
+            System.out.println("Cannot publish metrics over JMX: " + e.getMessage());
+        }
+
+        if (parallelism > 0) {
+            studentTracker.getStatistics().setEngine(
+                    new StatisticsEngine(parallelism, StatisticsEngine.DEFAULT_SERIAL_THRESHOLD));
+        }
+
+        if (dataDirectory != null && !openJournal(singleTracker, Path.of(dataDirectory))) {
+            studentTracker.shutdown();
+            return;
+        }
+
+        if (!importFiles.isEmpty()) {
+            // Stdin consumed by the import leaves nothing to drive the command loop.
+            if (!runImport(studentTracker, importFiles) || importFiles.contains("-")) {
+                studentTracker.shutdown();
+                return;
+            }
+        }
+
+        TrackerHttpServer httpServer = null;
+        if (httpPort >= 0) {
+            try {
+                httpServer = new TrackerHttpServer(studentTracker, httpPort,
+                        Math.max(4, Runtime.getRuntime().availableProcessors() * 2));
+                httpServer.start();
+                System.out.println("HTTP API listening on port " + httpServer.getPort() + ".");
+            } catch (IOException e) {
+                System.out.println("Cannot start HTTP API: " + e.getMessage());
+                studentTracker.shutdown();
+                return;
+            }
+        }
+        new TrackerConsole(studentTracker).start();
+        // Requests still arriving must be answered or refused before the final snapshot, or an acknowledged change
+        // would miss it.
+        if (httpServer != null) {
+            httpServer.close();
+        }
+        studentTracker.shutdown();
+    }
+
+    private static boolean openJournal(StudentTracker studentTracker, Path dataDirectory) {
+        try {
+            TrackerJournal journal = new TrackerJournal(dataDirectory);
+            System.out.println(journal.recover(studentTracker));
+            studentTracker.attachJournal(journal);
+            // Keeps the last few milliseconds of changes if the program dies without 'exit'.
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    journal.flush();
+                } catch (IOException e) {
+                    System.err.println("Failed to flush tracker journal: " + e.getMessage());
+                }
+            }));
+            return true;
+        } catch (IOException e) {
+            System.out.println("Cannot load tracker state: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static boolean runImport(Tracker studentTracker, List<String> importFiles) {
+        BulkImporter importer = new BulkImporter(studentTracker);
+        long start = System.nanoTime();
+        try {
+            importer.importStudents(importFiles.get(0));
+            if (importFiles.size() == 2) {
+                importer.importPoints(importFiles.get(1));
+            }
+        } catch (IOException e) {
+            System.out.println("Import failed: " + e.getMessage());
+            return false;
+        }
+        importer.printReport(System.nanoTime() - start);
+        return true;
     }
-}
\ No newline at end of file
+}
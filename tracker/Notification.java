@@ -32,10 +32,16 @@ public class Notification {
     }
 
     public void printNotification() {
-        System.out.println("To: " + student.getEmail());
-        System.out.println("Re: Your Learning Progress");
-        System.out.println("Hello, "+ student.getFirstName() + " " + student.getLastName() +
-                           "! You have accomplished our " + course.getName() + " course!");
+        System.out.print(getMessage());
+    }
+
+    // The three line message as it is printed, including the trailing line separator.
+    public String getMessage() {
+        String lineSeparator = System.lineSeparator();
+        return "To: " + student.getEmail() + lineSeparator +
+               "Re: Your Learning Progress" + lineSeparator +
+               "Hello, "+ student.getFirstName() + " " + student.getLastName() +
+               "! You have accomplished our " + course.getName() + " course!" + lineSeparator;
     }
 
     @Override
@@ -0,0 +1,214 @@
+package tracker;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+/**
+ * A class for delivering notifications off the command thread.
+ * Notifications go through a bounded queue to worker threads that hand them to a sink in batches,
+ * retrying failed batches before giving up on them. A listener given with a notification learns which happened.
+ */
+public class NotificationDispatcher implements AutoCloseable {
+    private static final long POLL_MILLIS = 100;
+    private static final long RETRY_BACKOFF_MILLIS = 20;
+
+    private final NotificationSink sink;
+    private final BlockingQueue<Delivery> queue;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final List<Thread> workers;
+    private volatile boolean running;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong backpressureWaits = new AtomicLong();
+    private final Object idleLock = new Object();
+
+    // Creating dispatcher with one worker, which keeps console output in submission order
+    public NotificationDispatcher(NotificationSink sink) {
+        this(sink, 10_000, 1, 256, 3);
+    }
+
+    public NotificationDispatcher(NotificationSink sink, int capacity, int workerCount, int batchSize, int maxAttempts) {
+        this.sink = sink;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.running = true;
+        this.workers = new ArrayList<>(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = new Thread(this::deliverLoop, "notification-worker-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    // Told once per notification, on a worker thread, whether the sink took it or it was dropped after every retry.
+    public interface DeliveryListener {
+        void completed(Notification notification, boolean delivered);
+    }
+
+    // Queues without waiting; returns false and counts the rejection if the queue is full.
+    public boolean offer(Notification notification) {
+        return offer(notification, null);
+    }
+
+    public boolean offer(Notification notification, DeliveryListener listener) {
+        pending.incrementAndGet();
+        if (queue.offer(new Delivery(notification, listener))) {
+            return true;
+        }
+        backpressureWaits.incrementAndGet();
+        markDone();
+        return false;
+    }
+
+    // Queues the notification, waiting for room when the workers have fallen behind.
+    public void submit(Notification notification) throws InterruptedException {
+        submit(notification, null);
+    }
+
+    public void submit(Notification notification, DeliveryListener listener) throws InterruptedException {
+        pending.incrementAndGet();
+        Delivery delivery = new Delivery(notification, listener);
+        if (!queue.offer(delivery)) {
+            backpressureWaits.incrementAndGet();
+            try {
+                queue.put(delivery);
+            } catch (InterruptedException e) {
+                markDone();
+                throw e;
+            }
+        }
+    }
+
+    public boolean writesToConsole() {
+        return sink.writesToConsole();
+    }
+
+    // Blocks until every accepted notification has been delivered or has failed.
+    public void awaitDelivery() throws InterruptedException {
+        synchronized (idleLock) {
+            while (pending.get() > 0) {
+                idleLock.wait();
+            }
+        }
+    }
+
+    private void deliverLoop() {
+        List<Delivery> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Delivery first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                deliverWithRetry(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                for (int i = 0; i < batch.size(); i++) {
+                    markDone();
+                }
+                batch.clear();
+            }
+        }
+    }
+
+    private void deliverWithRetry(List<Delivery> batch) throws InterruptedException {
+        List<Notification> notifications = new ArrayList<>(batch.size());
+        for (Delivery delivery : batch) {
+            notifications.add(delivery.notification());
+        }
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            try {
+                sink.deliver(notifications);
+                delivered.addAndGet(batch.size());
+                complete(batch, true);
+                return;
+            } catch (IOException | RuntimeException e) {
+                if (attempt == maxAttempts) {
+                    System.err.println("Dropping " + batch.size() + " notifications after " + attempt
+                            + " attempts: " + e.getMessage());
+                    failed.addAndGet(batch.size());
+                    complete(batch, false);
+                    return;
+                }
+                retries.incrementAndGet();
+                Thread.sleep(RETRY_BACKOFF_MILLIS * attempt);
+            }
+        }
+    }
+
+    private static void complete(List<Delivery> batch, boolean delivered) {
+        for (Delivery delivery : batch) {
+            if (delivery.listener() != null) {
+                try {
+                    delivery.listener().completed(delivery.notification(), delivered);
+                } catch (RuntimeException e) {
+                    System.err.println("Notification listener failed: " + e);
+                }
+            }
+        }
+    }
+
+    private void markDone() {
+        if (pending.decrementAndGet() == 0) {
+            synchronized (idleLock) {
+                idleLock.notifyAll();
+            }
+        }
+    }
+
+    public long getPendingCount() {
+        return pending.get();
+    }
+
+    public long getDeliveredCount() {
+        return delivered.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public long getRetryCount() {
+        return retries.get();
+    }
+
+    public long getBackpressureCount() {
+        return backpressureWaits.get();
+    }
+
+    // Stops accepting work once the queue has drained, then closes the sink. Later calls do nothing,
+    // so trackers sharing a dispatcher may each close it.
+    @Override
+    public synchronized void close() throws IOException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        sink.close();
+    }
+
+    private record Delivery(Notification notification, DeliveryListener listener) {
+    }
+}
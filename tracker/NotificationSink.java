@@ -0,0 +1,22 @@
+package tracker;
+
+import java.io.IOException;
+import java.util.List;
+/**
+ * A destination for completion notifications.
+ * Sinks receive notifications in batches from the NotificationDispatcher worker threads.
+ */
+public interface NotificationSink extends AutoCloseable {
+
+    // Delivers the whole batch or throws, in which case the dispatcher retries the batch.
+    void deliver(List<Notification> batch) throws IOException;
+
+    // Sinks that print to the console make the 'notify' command wait so its output stays in order.
+    default boolean writesToConsole() {
+        return false;
+    }
+
+    @Override
+    default void close() throws IOException {
+    }
+}
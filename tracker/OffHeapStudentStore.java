@@ -0,0 +1,111 @@
+package tracker;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+/**
+ * Columnar storage for student ids, points and submission counts outside the Java heap.
+ * Rows are addressed by numeric student id, densely from the first id, and allocated in direct buffer chunks
+ * of 65536 rows; a shard's store holds every stride-th id only. Within a chunk each column is contiguous: ids, then points per course, then submissions per course.
+ * Writes to one row must be serialized by the caller (Student does this); different rows may be written concurrently.
+ */
+public class OffHeapStudentStore {
+    private static final int CHUNK_BITS = 16;
+    private static final int CHUNK_ROWS = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_ROWS - 1;
+    private static final int COLUMN_BYTES = CHUNK_ROWS * Integer.BYTES;
+
+    private final int firstId;
+    private final int stride;
+    private final int courseCount;
+    private volatile ByteBuffer[] chunks = new ByteBuffer[0];
+
+    public OffHeapStudentStore(int firstId, int courseCount) {
+        this(firstId, 1, courseCount);
+    }
+
+    public OffHeapStudentStore(int firstId, int stride, int courseCount) {
+        this.firstId = firstId;
+        this.stride = stride;
+        this.courseCount = courseCount;
+    }
+
+    // Makes room for the student's row and records their id in it.
+    public void bind(int studentId) {
+        int offset = studentId - firstId;
+        if (offset < 0 || offset % stride != 0) {
+            throw new IllegalArgumentException("Student id " + studentId + " does not belong in this store");
+        }
+        int row = offset / stride;
+        chunkFor(row).putInt((row & CHUNK_MASK) * Integer.BYTES, studentId);
+    }
+
+    public int getPoints(int studentId, int courseId) {
+        return read(studentId, 1 + courseId);
+    }
+
+    public void setPoints(int studentId, int courseId, int points) {
+        write(studentId, 1 + courseId, points);
+    }
+
+    public int getSubmissions(int studentId, int courseId) {
+        return read(studentId, 1 + courseCount + courseId);
+    }
+
+    public void setSubmissions(int studentId, int courseId, int submissions) {
+        write(studentId, 1 + courseCount + courseId, submissions);
+    }
+
+    // The id stored in a row, or 0 if no student has been bound to it.
+    public int getStudentId(int row) {
+        ByteBuffer[] current = chunks;
+        int chunk = row >>> CHUNK_BITS;
+        return chunk < current.length ? current[chunk].getInt((row & CHUNK_MASK) * Integer.BYTES) : 0;
+    }
+
+    public int getCapacity() {
+        return chunks.length * CHUNK_ROWS;
+    }
+
+    public long getOffHeapBytes() {
+        return (long) chunks.length * COLUMN_BYTES * (1 + 2 * courseCount);
+    }
+
+    private int read(int studentId, int column) {
+        int offset = studentId - firstId;
+        int row = offset < 0 ? -1 : offset / stride;
+        ByteBuffer[] current = chunks;
+        int chunk = row >>> CHUNK_BITS;
+        if (row < 0 || chunk >= current.length) {
+            return 0;
+        }
+        return current[chunk].getInt(column * COLUMN_BYTES + (row & CHUNK_MASK) * Integer.BYTES);
+    }
+
+    private void write(int studentId, int column, int value) {
+        int row = (studentId - firstId) / stride;
+        chunkFor(row).putInt(column * COLUMN_BYTES + (row & CHUNK_MASK) * Integer.BYTES, value);
+    }
+
+    private ByteBuffer chunkFor(int row) {
+        int chunk = row >>> CHUNK_BITS;
+        ByteBuffer[] current = chunks;
+        if (chunk < current.length) {
+            return current[chunk];
+        }
+        return grow(chunk);
+    }
+
+    private synchronized ByteBuffer grow(int chunk) {
+        ByteBuffer[] current = chunks;
+        if (chunk >= current.length) {
+            ByteBuffer[] grown = new ByteBuffer[chunk + 1];
+            System.arraycopy(current, 0, grown, 0, current.length);
+            for (int i = current.length; i < grown.length; i++) {
+                grown[i] = ByteBuffer.allocateDirect(COLUMN_BYTES * (1 + 2 * courseCount)).order(ByteOrder.nativeOrder());
+            }
+            chunks = grown;
+            current = grown;
+        }
+        return current[chunk];
+    }
+}
@@ -0,0 +1,30 @@
+package tracker;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+/**
+ * A Java Flight Recorder event for one timed tracker operation.
+ * The event is committed when the operation ends, so its own duration is zero and the latency field holds the time
+ * the operation took. Filter on the latency in JDK Mission Control or with "jfr print --events tracker.Operation".
+ */
+@Name("tracker.Operation")
+@Label("Tracker Operation")
+@Category("Learning Progress Tracker")
+@Description("A timed tracker operation such as addSubmission or printCourseInfo")
+@StackTrace(false)
+class OperationEvent extends Event {
+    static final EventType TYPE = EventType.getEventType(OperationEvent.class);
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Latency")
+    @Timespan(Timespan.NANOSECONDS)
+    long latency;
+}
@@ -0,0 +1,125 @@
+package tracker;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+/**
+ * A fixed-size, thread-safe histogram of non-negative int values with log-linear buckets, in the style of HdrHistogram.
+ * Values below 128 are counted exactly; larger values share a bucket with others within 1/64 of them,
+ * so quantiles are accurate to about 1.6% whatever the range. Histograms can be merged, for example across threads.
+ */
+public class PointsHistogram {
+    private static final int EXACT_LIMIT = 128;
+    private static final int SUB_BUCKETS = 64;
+    private static final int SUB_BUCKET_BITS = 6;
+    // Exact buckets, then 64 sub-buckets for each power of two from 2^7 to 2^30.
+    private static final int BUCKET_COUNT = EXACT_LIMIT + (31 - 7) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    public void record(int value) {
+        counts.incrementAndGet(indexOf(value));
+    }
+
+    // Takes back a value recorded earlier, as when a student moves from one completion level to another.
+    public void remove(int value) {
+        counts.decrementAndGet(indexOf(value));
+    }
+
+    // Adds every count of the other histogram into this one.
+    public void merge(PointsHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long count = other.counts.get(i);
+            if (count != 0) {
+                counts.addAndGet(i, count);
+            }
+        }
+    }
+
+    public PointsHistogram copy() {
+        PointsHistogram copy = new PointsHistogram();
+        copy.merge(this);
+        return copy;
+    }
+
+    public long getTotalCount() {
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    // The value at the given quantile (0 to 1), reported as the lowest value of the bucket it falls in.
+    public int getValueAtQuantile(double quantile) {
+        long[] snapshot = snapshot();
+        long total = 0;
+        for (long count : snapshot) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return lowestValueOf(i);
+            }
+        }
+        return lowestValueOf(BUCKET_COUNT - 1);
+    }
+
+    // Values recorded between from and to inclusive, to bucket precision.
+    public long getCountBetween(int from, int to) {
+        long count = 0;
+        for (int i = indexOf(from); i <= indexOf(to); i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    // The largest recorded value, to bucket precision.
+    public int getMaxValue() {
+        for (int i = BUCKET_COUNT - 1; i >= 0; i--) {
+            if (counts.get(i) > 0) {
+                return lowestValueOf(i);
+            }
+        }
+        return 0;
+    }
+
+    public static int getFootprintBytes() {
+        return BUCKET_COUNT * Long.BYTES;
+    }
+
+    // The bucket counts in order, for saving in a snapshot.
+    long[] snapshot() {
+        long[] snapshot = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+        }
+        return snapshot;
+    }
+
+    void restoreBucket(int index, long count) {
+        counts.addAndGet(index, count);
+    }
+
+    private static int indexOf(int value) {
+        if (value < EXACT_LIMIT) {
+            return Math.max(value, 0);
+        }
+        int magnitude = 31 - Integer.numberOfLeadingZeros(value);
+        int subBucket = value >>> (magnitude - SUB_BUCKET_BITS);
+        return EXACT_LIMIT + (magnitude - 7) * SUB_BUCKETS + (subBucket - SUB_BUCKETS);
+    }
+
+    private static int lowestValueOf(int index) {
+        if (index < EXACT_LIMIT) {
+            return index;
+        }
+        int magnitude = (index - EXACT_LIMIT) / SUB_BUCKETS + 7;
+        int subBucket = (index - EXACT_LIMIT) % SUB_BUCKETS + SUB_BUCKETS;
+        return subBucket << (magnitude - SUB_BUCKET_BITS);
+    }
+}
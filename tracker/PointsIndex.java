@@ -0,0 +1,97 @@
+package tracker;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+/**
+ * A Fenwick tree counting one points value per enrolled student, for counts above a threshold in logarithmic time.
+ * Values below 4096 have a bucket each, which covers every course in practice; larger values share a bucket with
+ * others within 1/64 of them, as in PointsHistogram. Counting the buckets above a value takes about thirteen reads
+ * and moving a value to another bucket about twenty-six atomic adds. Updates are lock-free; a count taken while
+ * points are being added may include some of the concurrent moves and not others.
+ */
+public class PointsIndex {
+    private static final int EXACT_BITS = 12;
+    private static final int EXACT_LIMIT = 1 << EXACT_BITS;
+    private static final int SUB_BUCKETS = 64;
+    private static final int SUB_BUCKET_BITS = 6;
+    // Exact buckets, then 64 sub-buckets for each power of two from 2^12 to 2^30.
+    private static final int SIZE = EXACT_LIMIT + (31 - EXACT_BITS) * SUB_BUCKETS;
+
+    // 1-based Fenwick tree: tree[i] holds the count of buckets i - lowbit(i) + 1 to i, bucket b stored at b + 1.
+    private final AtomicIntegerArray tree = new AtomicIntegerArray(SIZE + 1);
+
+    public void add(int value) {
+        update(bucketOf(value), 1);
+    }
+
+    public void remove(int value) {
+        update(bucketOf(value), -1);
+    }
+
+    // Moves a value counted earlier, touching the tree only when it changes bucket.
+    public void move(int oldValue, int newValue) {
+        int oldBucket = bucketOf(oldValue);
+        int newBucket = bucketOf(newValue);
+        if (oldBucket != newBucket) {
+            update(oldBucket, -1);
+            update(newBucket, 1);
+        }
+    }
+
+    public long getTotalCount() {
+        return countThrough(SIZE - 1);
+    }
+
+    // Values in the buckets above the one holding the given value.
+    public long countAboveBucketOf(int value) {
+        return getTotalCount() - countThrough(bucketOf(value));
+    }
+
+    // Values sharing the given value's bucket.
+    public long countInBucketOf(int value) {
+        int bucket = bucketOf(value);
+        return countThrough(bucket) - (bucket == 0 ? 0 : countThrough(bucket - 1));
+    }
+
+    // The lowest and highest values sharing the given value's bucket; both are the value itself below 4096.
+    public static int bucketLow(int value) {
+        return lowestValueOf(bucketOf(value));
+    }
+
+    public static int bucketHigh(int value) {
+        int bucket = bucketOf(value);
+        return bucket == SIZE - 1 ? Integer.MAX_VALUE : lowestValueOf(bucket + 1) - 1;
+    }
+
+    private void update(int bucket, int delta) {
+        for (int i = bucket + 1; i <= SIZE; i += i & -i) {
+            tree.addAndGet(i, delta);
+        }
+    }
+
+    // Values in buckets 0 to bucket inclusive.
+    private long countThrough(int bucket) {
+        long count = 0;
+        for (int i = bucket + 1; i > 0; i -= i & -i) {
+            count += tree.get(i);
+        }
+        return count;
+    }
+
+    private static int bucketOf(int value) {
+        if (value < EXACT_LIMIT) {
+            return Math.max(value, 0);
+        }
+        int magnitude = 31 - Integer.numberOfLeadingZeros(value);
+        int subBucket = value >>> (magnitude - SUB_BUCKET_BITS);
+        return EXACT_LIMIT + (magnitude - EXACT_BITS) * SUB_BUCKETS + (subBucket - SUB_BUCKETS);
+    }
+
+    private static int lowestValueOf(int bucket) {
+        if (bucket < EXACT_LIMIT) {
+            return bucket;
+        }
+        int magnitude = (bucket - EXACT_LIMIT) / SUB_BUCKETS + EXACT_BITS;
+        int subBucket = (bucket - EXACT_LIMIT) % SUB_BUCKETS + SUB_BUCKETS;
+        return subBucket << (magnitude - SUB_BUCKET_BITS);
+    }
+}
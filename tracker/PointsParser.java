@@ -0,0 +1,89 @@
+package tracker;
+/**
+ * A class for reading "id points..." lines in one pass without regular expressions.
+ * It accepts exactly what the 'add points' command always has: tokens separated by single whitespace
+ * characters, trailing whitespace ignored, digits only. One parser is reused line after line.
+ */
+public class PointsParser {
+    private final boolean commaSeparated;
+    private final int[] scores;
+    private String studentId;
+    private boolean wellFormed;
+
+    // Creating parser for lines with one score per course; commaSeparated also accepts ',' between fields, as in CSV imports
+    public PointsParser(int courseCount, boolean commaSeparated) {
+        this.commaSeparated = commaSeparated;
+        this.scores = new int[courseCount];
+    }
+
+    // Tokenizes the line, keeping the id token and the point values; returns isWellFormed().
+    public boolean parse(String line) {
+        int length = line.length();
+        int position = 0;
+        while (position < length && !isSeparator(line.charAt(position))) {
+            position++;
+        }
+        studentId = line.substring(0, position);
+
+        boolean digitsOnly = true;
+        int tokenIndex = 0;
+        int lastFilledToken = 0;
+        int firstEmptyToken = Integer.MAX_VALUE;
+        while (position < length) {
+            position++;
+            tokenIndex++;
+            int start = position;
+            long value = 0;
+            while (position < length) {
+                char c = line.charAt(position);
+                if (isSeparator(c)) {
+                    break;
+                }
+                if (c < '0' || c > '9') {
+                    digitsOnly = false;
+                } else if (value <= Integer.MAX_VALUE) {
+                    value = value * 10 + (c - '0');
+                }
+                position++;
+            }
+            if (position == start) {
+                firstEmptyToken = Math.min(firstEmptyToken, tokenIndex);
+                continue;
+            }
+            lastFilledToken = tokenIndex;
+            if (tokenIndex <= scores.length) {
+                if (value > Integer.MAX_VALUE) {
+                    digitsOnly = false;
+                }
+                scores[tokenIndex - 1] = (int) value;
+            }
+        }
+        // Empty tokens only count when something follows them, like trailing empties in String.split.
+        wellFormed = digitsOnly
+                && lastFilledToken == scores.length
+                && firstEmptyToken > lastFilledToken
+                && Validator.isDigits(studentId);
+        return wellFormed;
+    }
+
+    private boolean isSeparator(char c) {
+        return Validator.isWhitespace(c) || (commaSeparated && c == ',');
+    }
+
+    public String getStudentId() {
+        return studentId;
+    }
+
+    public boolean isWellFormed() {
+        return wellFormed;
+    }
+
+    public int getScore(int courseId) {
+        return scores[courseId];
+    }
+
+    // The scores of the last line by course id; the array is reused by the next parse.
+    public int[] getScores() {
+        return scores;
+    }
+}
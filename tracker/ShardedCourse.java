@@ -0,0 +1,204 @@
+package tracker;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+/**
+ * A read-only view of one course across every shard of a ShardedTracker.
+ * Counts and sums are added up from the shards' copies of the course on each call, histograms are merged,
+ * and standings come from a k-way merge of the shards' leaderboards, so nothing is copied or kept in sync.
+ * Points only ever reach the shard that owns the student, so the view has nothing to write.
+ */
+public class ShardedCourse implements CourseView {
+    private final int id;
+    private final String name;
+    private final int requiredCredits;
+    private final List<Course> parts;
+
+    public ShardedCourse(int id, String name, int requiredCredits, List<Course> parts) {
+        this.id = id;
+        this.name = name;
+        this.requiredCredits = requiredCredits;
+        this.parts = List.copyOf(parts);
+    }
+
+    @Override
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public int getRequiredCredits() {
+        return requiredCredits;
+    }
+
+    @Override
+    public int getEnrolledCount() {
+        int enrolled = 0;
+        for (Course part : parts) {
+            enrolled += part.getEnrolledCount();
+        }
+        return enrolled;
+    }
+
+    @Override
+    public long getSubmissionCount() {
+        long count = 0;
+        for (Course part : parts) {
+            count += part.getSubmissionCount();
+        }
+        return count;
+    }
+
+    @Override
+    public long getGradeSum() {
+        long sum = 0;
+        for (Course part : parts) {
+            sum += part.getGradeSum();
+        }
+        return sum;
+    }
+
+    @Override
+    public long getGradeSquareSum() {
+        long sum = 0;
+        for (Course part : parts) {
+            sum += part.getGradeSquareSum();
+        }
+        return sum;
+    }
+
+    @Override
+    public int getMinGrade() {
+        int min = Integer.MAX_VALUE;
+        for (Course part : parts) {
+            if (part.getSubmissionCount() > 0) {
+                min = Math.min(min, part.getMinGrade());
+            }
+        }
+        return min == Integer.MAX_VALUE ? 0 : min;
+    }
+
+    @Override
+    public int getMaxGrade() {
+        int max = 0;
+        for (Course part : parts) {
+            max = Math.max(max, part.getMaxGrade());
+        }
+        return max;
+    }
+
+    @Override
+    public PointsHistogram getScoreHistogram() {
+        PointsHistogram merged = new PointsHistogram();
+        for (Course part : parts) {
+            merged.merge(part.getScoreHistogram());
+        }
+        return merged;
+    }
+
+    @Override
+    public PointsHistogram getCompletionHistogram() {
+        PointsHistogram merged = new PointsHistogram();
+        for (Course part : parts) {
+            merged.merge(part.getCompletionHistogram());
+        }
+        return merged;
+    }
+
+    // The sum over the shards, so caches keyed on it see a change in any shard.
+    @Override
+    public long getModificationCount() {
+        long count = 0;
+        for (Course part : parts) {
+            count += part.getModificationCount();
+        }
+        return count;
+    }
+
+    @Override
+    public ActivityWindow.Totals getRecentActivity(long now, long windowMillis) {
+        long count = 0;
+        long sum = 0;
+        for (Course part : parts) {
+            ActivityWindow.Totals totals = part.getRecentActivity(now, windowMillis);
+            count += totals.count();
+            sum += totals.sum();
+        }
+        return new ActivityWindow.Totals(count, sum);
+    }
+
+    @Override
+    public Iterable<Course.Standing> getStandings() {
+        List<Iterable<Course.Standing>> standings = new ArrayList<>(parts.size());
+        for (Course part : parts) {
+            standings.add(part.getStandings());
+        }
+        return () -> new MergedStandings(standings);
+    }
+
+    @Override
+    public Iterable<Course.Standing> getStandingsBetween(int low, int high) {
+        List<Iterable<Course.Standing>> ranges = new ArrayList<>(parts.size());
+        for (Course part : parts) {
+            ranges.add(part.getStandingsBetween(low, high));
+        }
+        return () -> new MergedStandings(ranges);
+    }
+
+    @Override
+    public long countAtLeast(int points) {
+        long count = 0;
+        for (Course part : parts) {
+            count += part.countAtLeast(points);
+        }
+        return count;
+    }
+
+    public List<Course> getParts() {
+        return parts;
+    }
+
+    // Repeatedly takes the best head among the shards' standings, each already in Course.STANDING_ORDER.
+    private static final class MergedStandings implements Iterator<Course.Standing> {
+        private final PriorityQueue<Head> heads;
+
+        MergedStandings(List<Iterable<Course.Standing>> parts) {
+            heads = new PriorityQueue<>(Math.max(1, parts.size()),
+                    (left, right) -> Course.STANDING_ORDER.compare(left.standing(), right.standing()));
+            for (Iterable<Course.Standing> part : parts) {
+                Iterator<Course.Standing> standings = part.iterator();
+                if (standings.hasNext()) {
+                    heads.add(new Head(standings.next(), standings));
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heads.isEmpty();
+        }
+
+        @Override
+        public Course.Standing next() {
+            Head head = heads.poll();
+            if (head == null) {
+                throw new NoSuchElementException();
+            }
+            if (head.rest().hasNext()) {
+                heads.add(new Head(head.rest().next(), head.rest()));
+            }
+            return head.standing();
+        }
+    }
+
+    private record Head(Course.Standing standing, Iterator<Course.Standing> rest) {
+    }
+}
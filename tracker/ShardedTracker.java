@@ -0,0 +1,273 @@
+package tracker;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+/**
+ * A tracker that spreads its students over several in-process StudentTracker shards and coordinates them.
+ * Ids are still handed out in sequence; student id modulo the shard count picks the owning shard, which keeps
+ * that student's progress and its own course aggregates. Registration, points and lookups touch one shard,
+ * so writes to different shards never contend. Statistics read every shard through ShardedCourse views.
+ * The command loop, HTTP API and importer work on it through the Tracker interface. Shards share one notification
+ * dispatcher and the coordinator's metrics, change feed and snapshot clock, so one snapshot covers every shard.
+ * Sharded trackers are not journaled; Main refuses --shards together with --data-dir.
+ */
+public class ShardedTracker implements Tracker {
+    private static final Comparator<Student> ID_ORDER = Comparator.comparingInt(Student::getNumericId);
+
+    private final CourseCatalog catalog;
+    private final NotificationDispatcher notificationDispatcher;
+    private final TrackerMetrics metrics = new TrackerMetrics();
+    private final TrackerEventFeed events = new TrackerEventFeed();
+    private final SnapshotClock snapshots = new SnapshotClock();
+    private final StudentTracker[] shards;
+    // Emails must be unique across shards, so the coordinator checks them before picking a shard.
+    private final Set<String> emails = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger nextId = new AtomicInteger(FIRST_ID);
+    private final ShardedCourse[] courses;
+    // The first shard's courses, for the on-heap students that carry credentials to registerStudent.
+    private final Course[] credentialCourses;
+    private final Map<String, ShardedCourse> courseMap = new LinkedHashMap<>();
+    private final Statistics statistics;
+
+    public ShardedTracker(CourseCatalog catalog, NotificationDispatcher notificationDispatcher, int shardCount,
+                          boolean offHeap) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("A sharded tracker needs at least one shard");
+        }
+        this.catalog = catalog;
+        this.notificationDispatcher = notificationDispatcher;
+        this.shards = new StudentTracker[shardCount];
+        for (int shard = 0; shard < shardCount; shard++) {
+            shards[shard] = new StudentTracker(catalog, notificationDispatcher, offHeap, shard, shardCount, metrics,
+                    events, snapshots);
+        }
+        this.courses = new ShardedCourse[catalog.size()];
+        this.credentialCourses = new Course[catalog.size()];
+        for (int id = 0; id < courses.length; id++) {
+            List<Course> parts = new ArrayList<>(shardCount);
+            for (StudentTracker shard : shards) {
+                parts.add(shard.getCourse(id));
+            }
+            credentialCourses[id] = shards[0].getCourse(id);
+            courses[id] = new ShardedCourse(id, catalog.getName(id), catalog.getRequiredCredits(id), parts);
+            courseMap.put(courses[id].getName(), courses[id]);
+        }
+        this.statistics = new Statistics(this::openSnapshot, courseMap);
+    }
+
+    // The shard owning the id, or null for an id below the first one.
+    public StudentTracker shardFor(int studentId) {
+        return studentId < FIRST_ID ? null : shards[(studentId - FIRST_ID) % shards.length];
+    }
+
+    // Only carries the credentials, so it never joins an off-heap store; registerStudent re-creates the student
+    // in the shard that owns its id.
+    @Override
+    public Student newStudent() {
+        return new Student(null, credentialCourses);
+    }
+
+    @Override
+    public boolean registerStudent(Student newStudent) {
+        if (!emails.add(newStudent.getEmail())) {
+            return false;
+        }
+        int id = nextId.getAndIncrement();
+        // The shard keeps a student of its own; the caller's copy gets the id so it can report it.
+        newStudent.assignId(id);
+        shardFor(id).registerStudent(id, newStudent.getFirstName(), newStudent.getLastName(), newStudent.getEmail());
+        return true;
+    }
+
+    @Override
+    public PointsStatus submitParsedPoints(PointsParser parser) {
+        StudentTracker shard = shardFor(StudentIndex.parseId(parser.getStudentId()));
+        return shard == null ? PointsStatus.UNKNOWN_STUDENT : shard.submitParsedPoints(parser);
+    }
+
+    @Override
+    public void submitPoints(Student targetStudent, long timestamp, int[] scores) {
+        shardFor(targetStudent.getNumericId()).submitPoints(targetStudent, timestamp, scores);
+    }
+
+    @Override
+    public int deliverPendingNotifications() {
+        // A student lives in one shard only, so the per-shard counts of distinct students add up.
+        int notified = 0;
+        for (StudentTracker shard : shards) {
+            notified += shard.deliverPendingNotifications();
+        }
+        return notified;
+    }
+
+    // The shards share the dispatcher and change feed, so the first shard to shut down drains and closes them.
+    @Override
+    public void shutdown() {
+        for (StudentTracker shard : shards) {
+            shard.shutdown();
+        }
+        statistics.getEngine().close();
+    }
+
+    // There is no journal to snapshot.
+    @Override
+    public void snapshotIfDue() {
+    }
+
+    @Override
+    public int getPendingNotificationCount() {
+        int count = 0;
+        for (StudentTracker shard : shards) {
+            count += shard.getPendingNotificationCount();
+        }
+        return count;
+    }
+
+    @Override
+    public int getNextId() {
+        return nextId.get();
+    }
+
+    @Override
+    public int getStudentCount() {
+        int count = 0;
+        for (StudentTracker shard : shards) {
+            count += shard.getStudentCount();
+        }
+        return count;
+    }
+
+    @Override
+    public List<Student> getStudentsInIdOrder() {
+        return getStudentsPage(FIRST_ID - 1, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Student> getStudentsPage(int afterId, int limit) {
+        List<List<Student>> pages = new ArrayList<>(shards.length);
+        for (StudentTracker shard : shards) {
+            pages.add(shard.getStudentsPage(afterId, limit));
+        }
+        return mergePages(pages, ID_ORDER, limit);
+    }
+
+    @Override
+    public List<Student> searchByName(String prefix, int afterId, int limit) {
+        List<List<Student>> pages = new ArrayList<>(shards.length);
+        for (StudentTracker shard : shards) {
+            pages.add(shard.searchByName(prefix, afterId, limit));
+        }
+        return mergePages(pages, ID_ORDER, limit);
+    }
+
+    @Override
+    public List<Student> searchByEmail(String prefix, Student after, int limit) {
+        List<List<Student>> pages = new ArrayList<>(shards.length);
+        for (StudentTracker shard : shards) {
+            pages.add(shard.searchByEmail(prefix, after, limit));
+        }
+        return mergePages(pages, StudentSearchIndex.EMAIL_ORDER, limit);
+    }
+
+    @Override
+    public Student findByEmail(String email) {
+        for (StudentTracker shard : shards) {
+            Student student = shard.findByEmail(email);
+            if (student != null) {
+                return student;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Student getStudent(String studentID) {
+        return getStudent(StudentIndex.parseId(studentID));
+    }
+
+    @Override
+    public Student getStudent(int studentId) {
+        StudentTracker shard = shardFor(studentId);
+        return shard == null ? null : shard.getStudent(studentId);
+    }
+
+    @Override
+    public CourseCatalog getCatalog() {
+        return catalog;
+    }
+
+    @Override
+    public Map<String, ShardedCourse> getCourseMap() {
+        return courseMap;
+    }
+
+    @Override
+    public ShardedCourse getCourse(int courseId) {
+        return courses[courseId];
+    }
+
+    @Override
+    public Statistics getStatistics() {
+        return statistics;
+    }
+
+    @Override
+    public TrackerSnapshot openSnapshot() {
+        return new TrackerSnapshot(snapshots, this::getAllStudents);
+    }
+
+    @Override
+    public NotificationDispatcher getNotificationDispatcher() {
+        return notificationDispatcher;
+    }
+
+    @Override
+    public TrackerMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public TrackerEventFeed getEvents() {
+        return events;
+    }
+
+    public List<StudentTracker> getShards() {
+        return List.of(shards);
+    }
+
+    // Merges pages sorted in the given order, one per shard, into the first limit students overall.
+    // Each shard may contribute up to the whole page, so every shard is asked for the full limit.
+    private static List<Student> mergePages(List<List<Student>> pages, Comparator<Student> order, int limit) {
+        int[] positions = new int[pages.size()];
+        List<Student> students = new ArrayList<>();
+        while (students.size() < limit) {
+            int next = -1;
+            for (int shard = 0; shard < pages.size(); shard++) {
+                if (positions[shard] < pages.get(shard).size() && (next < 0 || order.compare(
+                        pages.get(shard).get(positions[shard]), pages.get(next).get(positions[next])) < 0)) {
+                    next = shard;
+                }
+            }
+            if (next < 0) {
+                break;
+            }
+            students.add(pages.get(next).get(positions[next]++));
+        }
+        return students;
+    }
+
+    // Every student in shard order, for statistics that do not care about order.
+    private List<Student> getAllStudents() {
+        List<Student> students = new ArrayList<>(getStudentCount());
+        for (StudentTracker shard : shards) {
+            students.addAll(shard.getStudentsInIdOrder());
+        }
+        return students;
+    }
+}
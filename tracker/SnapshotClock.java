@@ -0,0 +1,100 @@
+package tracker;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+/**
+ * Epochs for reading student progress at a point in time while points keep arriving.
+ * Every change to a student happens inside the current epoch. Opening a snapshot ends that epoch and waits for the
+ * writes still inside it, usually a few microseconds, so nothing that happens afterwards can change what the snapshot
+ * sees. Writers never wait: a student keeps a copy of its previous progress only while an open snapshot can see it,
+ * and is then listed under the epoch of the change, so a snapshot can find who changed since without a full pass.
+ */
+public class SnapshotClock {
+    private static final int NONE = -1;
+
+    private volatile int epoch = 1;
+    // Writes in progress, by the parity of their epoch; only the current and the previous epoch can have any.
+    private final LongAdder[] writers = {new LongAdder(), new LongAdder()};
+    // Epochs of the open snapshots, with how many are open at each; guarded by this.
+    private final TreeMap<Integer, Integer> openSnapshots = new TreeMap<>();
+    private volatile int newestOpen = NONE;
+    private volatile int oldestOpen = NONE;
+    // Students that kept a copy of their progress, by the epoch of the change; only epochs after the oldest open
+    // snapshot are kept.
+    private final Map<Integer, Queue<Student>> changes = new ConcurrentHashMap<>();
+
+    // Enters the current epoch for one write; pass the result to endWrite.
+    public int beginWrite() {
+        while (true) {
+            int current = epoch;
+            LongAdder counter = writers[current & 1];
+            counter.increment();
+            // A snapshot may have ended the epoch in between; then the write belongs to the next one.
+            if (epoch == current) {
+                return current;
+            }
+            counter.decrement();
+        }
+    }
+
+    public void endWrite(int writeEpoch) {
+        writers[writeEpoch & 1].decrement();
+    }
+
+    // Ends the current epoch and returns it once every write in it has finished.
+    synchronized int open() {
+        int snapshot = epoch;
+        openSnapshots.merge(snapshot, 1, Integer::sum);
+        newestOpen = snapshot;
+        oldestOpen = openSnapshots.firstKey();
+        epoch = snapshot + 1;
+        LongAdder counter = writers[snapshot & 1];
+        while (counter.sum() != 0) {
+            Thread.yield();
+        }
+        return snapshot;
+    }
+
+    synchronized void close(int snapshot) {
+        if (openSnapshots.merge(snapshot, -1, Integer::sum) == 0) {
+            openSnapshots.remove(snapshot);
+        }
+        newestOpen = openSnapshots.isEmpty() ? NONE : openSnapshots.lastKey();
+        oldestOpen = openSnapshots.isEmpty() ? NONE : openSnapshots.firstKey();
+        // A change recorded just as the last snapshot closed is dropped at the next close.
+        changes.keySet().removeIf(changeEpoch -> oldestOpen == NONE || changeEpoch <= oldestOpen);
+    }
+
+    // Lists a student that kept a copy of its progress before its first change in the given epoch.
+    void recordChange(int writeEpoch, Student student) {
+        changes.computeIfAbsent(writeEpoch, key -> new ConcurrentLinkedQueue<>()).add(student);
+    }
+
+    // Adds the students changed after the given snapshot, as far as recorded so far; some may be listed twice.
+    void collectChanges(int snapshot, Set<Student> changed) {
+        for (Map.Entry<Integer, Queue<Student>> entry : changes.entrySet()) {
+            if (entry.getKey() > snapshot) {
+                changed.addAll(entry.getValue());
+            }
+        }
+    }
+
+    // Whether an open snapshot can see progress last changed in the given epoch, so it must be kept when it changes.
+    boolean isVisible(int version) {
+        return newestOpen >= version;
+    }
+
+    // The epoch of the oldest open snapshot, or -1 when none is open.
+    int getOldestOpen() {
+        return oldestOpen;
+    }
+
+    public int getEpoch() {
+        return epoch;
+    }
+}
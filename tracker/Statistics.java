@@ -1,196 +1,335 @@
 package tracker;
 
+import java.io.PrintWriter;
 import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
 import java.util.stream.Collectors;
 /**
  * Class for displaying statistics on completed courses.
  * Contains methods for displaying statistics for each course.
+ * One instance lives as long as the tracker; the course rankings are cached until a course changes.
+ * The summary and course details are read from a TrackerSnapshot, so points arriving meanwhile do not tear them.
  */
 public class Statistics {
-    private final Map<String, Student> studentMap;
-    private final Map<String, Integer> creditMap;
-    private final Map<String, Course> courseMap;
+    private final Supplier<TrackerSnapshot> snapshots;
+    private final Map<String, CourseView> courseMap;
+    private volatile CachedRankings cachedRankings;
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private volatile StatisticsEngine engine = StatisticsEngine.withDefaults();
 
     // Creating object statistics
-    public Statistics(Map<String, Student> studentMap, Map<String, Course> courseMap) {
-        this.studentMap = studentMap;
-        this.courseMap = courseMap; // all available courses
-        this.creditMap = new HashMap<>();
-        creditMap.put("Java", 600);
-        creditMap.put("DSA", 400);
-        creditMap.put("Databases", 480);
-        creditMap.put("Spring", 550);
+    public Statistics(Supplier<TrackerSnapshot> snapshots, Map<String, ? extends CourseView> courseMap) {
+        this.snapshots = snapshots;
+        this.courseMap = Collections.unmodifiableMap(courseMap); // all available courses
     }
 
     public void printAllCourseRankings() {
-        Comparator<Course> popularityComp = Comparator.comparingInt(o -> o.getEnrolled().size());
-        Comparator<Course> activityComp = Comparator.comparingInt(o -> o.getSubmissionHistory().size());
-        Comparator<Course> difficultyComp = (o1, o2) -> {
-            double averageGradeO1 = o1.getSubmissionHistory().stream()
-                                      .mapToInt(Integer::intValue)
-                                      .average()
-                                      .orElse(0);
-            double averageGradeO2 = o2.getSubmissionHistory().stream()
-                                      .mapToInt(Integer::intValue)
-                                      .average()
-                                      .orElse(0);
-            return Double.compare(averageGradeO1, averageGradeO2);
-        };
-
-        List<Course> sortByPopularity = courseMap.values().stream()
+        Rankings rankings = computeRankings();
+        System.out.println("Type the name of a course to see details or 'back' to quit");
+        System.out.println("Most popular: " + rankings.mostPopular());
+        System.out.println("Least popular: " + rankings.leastPopular());
+        System.out.println("Highest activity: " + rankings.highestActivity());
+        System.out.println("Lowest activity: " + rankings.lowestActivity());
+        System.out.println("Easiest course: " + rankings.easiest());
+        System.out.println("Hardest course: " + rankings.hardest());
+    }
+
+    // Returns the cached rankings unless a course has changed since they were computed.
+    public Rankings computeRankings() {
+        // Read before computing: a change racing with the computation leaves the cache stale, never wrong.
+        long version = courseVersion();
+        CachedRankings cached = cachedRankings;
+        if (cached != null && cached.version() == version) {
+            cacheHits.increment();
+            return cached.rankings();
+        }
+        cacheMisses.increment();
+        Rankings rankings = rankCourses();
+        cachedRankings = new CachedRankings(version, rankings);
+        return rankings;
+    }
+
+    private long courseVersion() {
+        long version = 0;
+        for (CourseView course : courseMap.values()) {
+            version += course.getModificationCount();
+        }
+        return version;
+    }
+
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    private Rankings rankCourses() {
+        Comparator<CourseView> popularityComp = Comparator.comparingInt(CourseView::getEnrolledCount);
+        Comparator<CourseView> activityComp = Comparator.comparingLong(CourseView::getSubmissionCount);
+        Comparator<CourseView> difficultyComp = Comparator.comparingDouble(CourseView::getAverageGrade);
+
+        List<CourseView> sortByPopularity = courseMap.values().stream()
                                         .sorted(popularityComp)
                                         .toList();
-        List<Course> sortByActivity = courseMap.values().stream()
+        List<CourseView> sortByActivity = courseMap.values().stream()
                                       .sorted(activityComp)
                                       .toList();
-        List<Course> sortByDifficulty = courseMap.values().stream()
+        List<CourseView> sortByDifficulty = courseMap.values().stream()
                                         .sorted(difficultyComp)
                                         .toList();
 
-
-
-        System.out.println("Type the name of a course to see details or 'back' to quit");
-        System.out.println("Most popular: " + getMostPopular(sortByPopularity));
-        System.out.println("Least popular: " + getLeastPopular(sortByPopularity));
-        System.out.println("Highest activity: " + getMostActive(sortByActivity));
-        System.out.println("Lowest activity: " + getLeastActive(sortByActivity));
-        System.out.println("Easiest course: " + getEasiest(sortByDifficulty));
-        System.out.println("Hardest course: " + getHardest(sortByDifficulty));
+        String mostPopular = getMostPopular(sortByPopularity);
+        String mostActive = getMostActive(sortByActivity);
+        String easiest = getEasiest(sortByDifficulty);
+        return new Rankings(mostPopular, getLeastPopular(sortByPopularity, mostPopular),
+                mostActive, getLeastActive(sortByActivity, mostActive),
+                easiest, getHardest(sortByDifficulty, easiest));
     }
 
-    private String getMostPopular(List<Course> courseList) {
-        if (courseList.get(courseList.size() - 1).getSubmissionHistory().isEmpty()) {
+    private String getMostPopular(List<CourseView> courseList) {
+        if (courseList.get(courseList.size() - 1).getSubmissionCount() == 0) {
             return "n/a";
         }
-        int highestPopularity = courseList.get(courseList.size() - 1).getEnrolled().size();
-        List<Course> mostPopular = courseList.stream()
-                .filter(course -> course.getEnrolled().size() == highestPopularity)
+        int highestPopularity = courseList.get(courseList.size() - 1).getEnrolledCount();
+        List<CourseView> mostPopular = courseList.stream()
+                .filter(course -> course.getEnrolledCount() == highestPopularity)
                 .toList();
         return joinedCourses(mostPopular);
     }
 
-    private String getLeastPopular(List<Course> courseList) {
-        if (courseList.get(0).getSubmissionHistory().isEmpty()) {
+    private String getLeastPopular(List<CourseView> courseList, String mostPopular) {
+        if (courseList.get(0).getSubmissionCount() == 0) {
             return "n/a";
         }
-        int lowestPopularity = courseList.get(0).getEnrolled().size();
-        List<Course> leastPopular = courseList.stream()
-                .filter(course -> course.getEnrolled().size() == lowestPopularity)
+        int lowestPopularity = courseList.get(0).getEnrolledCount();
+        List<CourseView> leastPopular = courseList.stream()
+                .filter(course -> course.getEnrolledCount() == lowestPopularity)
                 .toList();
-        if (joinedCourses(leastPopular).equals(getMostPopular(courseList))) {
+        if (joinedCourses(leastPopular).equals(mostPopular)) {
             return "n/a";
         }
         return joinedCourses(leastPopular);
     }
 
-    private String getMostActive(List<Course> courseList) {
-        if (courseList.get(courseList.size() - 1).getSubmissionHistory().isEmpty()) {
+    private String getMostActive(List<CourseView> courseList) {
+        if (courseList.get(courseList.size() - 1).getSubmissionCount() == 0) {
             return "n/a";
         }
-        int highestActivity = courseList.get(courseList.size() - 1).getSubmissionHistory().size();
-        List<Course> mostActive = courseList.stream()
-                .filter(course -> course.getSubmissionHistory().size() == highestActivity)
+        long highestActivity = courseList.get(courseList.size() - 1).getSubmissionCount();
+        List<CourseView> mostActive = courseList.stream()
+                .filter(course -> course.getSubmissionCount() == highestActivity)
                 .toList();
         return joinedCourses(mostActive);
     }
 
-    private String getLeastActive(List<Course> courseList) {
-        if (courseList.get(0).getSubmissionHistory().isEmpty()) {
+    private String getLeastActive(List<CourseView> courseList, String mostActive) {
+        if (courseList.get(0).getSubmissionCount() == 0) {
             return "n/a";
         }
-        int lowestActivity = courseList.get(0).getSubmissionHistory().size();
-        List<Course> leastActive = courseList.stream()
-                .filter(course -> course.getSubmissionHistory().size() == lowestActivity)
+        long lowestActivity = courseList.get(0).getSubmissionCount();
+        List<CourseView> leastActive = courseList.stream()
+                .filter(course -> course.getSubmissionCount() == lowestActivity)
                 .toList();
-        if (joinedCourses(leastActive).equals(getMostActive(courseList))) {
+        if (joinedCourses(leastActive).equals(mostActive)) {
             return "n/a";
         }
         return joinedCourses(leastActive);
     }
 
-    private String getEasiest(List<Course> courseList) {
-        if (courseList.get(courseList.size() - 1).getSubmissionHistory().isEmpty()) {
+    private String getEasiest(List<CourseView> courseList) {
+        if (courseList.get(courseList.size() - 1).getSubmissionCount() == 0) {
             return "n/a";
         }
         double highestAverage = courseList.get(courseList.size() - 1).getAverageGrade();
-        List<Course> easiestCourses = courseList.stream()
+        List<CourseView> easiestCourses = courseList.stream()
                 .filter(course -> course.getAverageGrade() == highestAverage)
                 .toList();
         return joinedCourses(easiestCourses);
     }
 
-    private String getHardest(List<Course> courseList) {
-        if (courseList.get(0).getSubmissionHistory().isEmpty()) {
+    private String getHardest(List<CourseView> courseList, String easiest) {
+        if (courseList.get(0).getSubmissionCount() == 0) {
             return "n/a";
         }
         double highestAverage = courseList.get(0).getAverageGrade();
-        List<Course> hardestCourses = courseList.stream()
+        List<CourseView> hardestCourses = courseList.stream()
                 .filter(course -> course.getAverageGrade() == highestAverage)
                 .toList();
-        if (joinedCourses(hardestCourses).equals(getEasiest(courseList))) {
+        if (joinedCourses(hardestCourses).equals(easiest)) {
             return "n/a";
         }
         return joinedCourses(hardestCourses);
     }
 
-    private String joinedCourses(List<Course> easiestCourses) {
+    // Points distribution per course over all students, computed in parallel for large populations.
+    public void printSummary() {
+        List<StatisticsEngine.CourseSummary> summaries;
+        try (TrackerSnapshot snapshot = snapshots.get()) {
+            summaries = engine.summarize(snapshot, courseMap.values());
+        }
+        PrintWriter out = ConsoleOutput.open();
+        for (StatisticsEngine.CourseSummary summary : summaries) {
+            out.println(summary.course() + ": " + summary.enrolled() + " students, " + summary.completed()
+                    + " completed, mean " + Math.round(summary.meanPoints() * 10.0) / 10.0
+                    + ", median " + summary.medianPoints() + ", p90 " + summary.p90Points()
+                    + ", p99 " + summary.p99Points() + ", max " + summary.maxPoints());
+        }
+        out.flush();
+    }
+
+    // Assignment score quantiles and the spread of enrolled students' progress, in steps of 10% of the required points.
+    public void printDistribution(CourseView course) {
+        PointsHistogram scores = course.getScoreHistogram();
+        PointsHistogram completion = course.getCompletionHistogram();
+        PrintWriter out = ConsoleOutput.open();
+        out.println(course.getName());
+        out.println("Assignment points: " + scores.getTotalCount() + " assignments, median "
+                + scores.getValueAtQuantile(0.5) + ", p90 " + scores.getValueAtQuantile(0.9)
+                + ", p99 " + scores.getValueAtQuantile(0.99) + ", max " + course.getMaxGrade());
+        out.println("completed  students");
+        for (int percent = 0; percent < 100; percent += 10) {
+            out.println(String.format("%-10s %d", percent + "-" + (percent + 9) + "%",
+                    completion.getCountBetween(percent, percent + 9)));
+        }
+        out.println(String.format("%-10s %d", "100%", completion.getCountBetween(100, Integer.MAX_VALUE)));
+        out.flush();
+    }
+
+    public StatisticsEngine getEngine() {
+        return engine;
+    }
+
+    // Replaces the engine used for summaries, closing the previous one.
+    public void setEngine(StatisticsEngine engine) {
+        StatisticsEngine previous = this.engine;
+        this.engine = engine;
+        previous.close();
+    }
+
+    // Activity and difficulty over the submissions made in the window ending now.
+    public void printRecentRankings(String label, long windowMillis) {
+        RecentRankings rankings = computeRecentRankings(System.currentTimeMillis(), windowMillis);
+        System.out.println(label + ":");
+        System.out.println("Highest activity: " + rankings.highestActivity());
+        System.out.println("Lowest activity: " + rankings.lowestActivity());
+        System.out.println("Easiest course: " + rankings.easiest());
+        System.out.println("Hardest course: " + rankings.hardest());
+    }
+
+    // Same n/a rules as computeRankings: lowest activity is n/a while a course had no submissions in the window,
+    // and only courses with submissions can be easiest or hardest, so one active course gives no hardest.
+    public RecentRankings computeRecentRankings(long now, long windowMillis) {
+        Map<CourseView, ActivityWindow.Totals> activity = new LinkedHashMap<>();
+        Map<CourseView, ActivityWindow.Totals> active = new LinkedHashMap<>();
+        for (CourseView course : courseMap.values()) {
+            ActivityWindow.Totals totals = course.getRecentActivity(now, windowMillis);
+            activity.put(course, totals);
+            if (totals.count() > 0) {
+                active.put(course, totals);
+            }
+        }
+        if (active.isEmpty()) {
+            return new RecentRankings("n/a", "n/a", "n/a", "n/a");
+        }
+        String highestActivity = coursesAtExtreme(activity, ActivityWindow.Totals::count, true);
+        String lowestActivity = active.size() < activity.size()
+                ? "n/a" : coursesAtExtreme(activity, ActivityWindow.Totals::count, false);
+        String easiest = coursesAtExtreme(active, ActivityWindow.Totals::average, true);
+        String hardest = coursesAtExtreme(active, ActivityWindow.Totals::average, false);
+        return new RecentRankings(highestActivity, lowestActivity.equals(highestActivity) ? "n/a" : lowestActivity,
+                easiest, hardest.equals(easiest) ? "n/a" : hardest);
+    }
+
+    // Names of the courses sharing the highest (or lowest) value of the key.
+    private String coursesAtExtreme(Map<CourseView, ActivityWindow.Totals> activity,
+                                    ToDoubleFunction<ActivityWindow.Totals> key, boolean highest) {
+        double extreme = highest ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        for (ActivityWindow.Totals totals : activity.values()) {
+            double value = key.applyAsDouble(totals);
+            extreme = highest ? Math.max(extreme, value) : Math.min(extreme, value);
+        }
+        List<CourseView> courses = new ArrayList<>();
+        for (Map.Entry<CourseView, ActivityWindow.Totals> entry : activity.entrySet()) {
+            if (key.applyAsDouble(entry.getValue()) == extreme) {
+                courses.add(entry.getKey());
+            }
+        }
+        return joinedCourses(courses);
+    }
+
+    private String joinedCourses(List<CourseView> easiestCourses) {
         return easiestCourses.stream()
-                .map(Course::getName)
+                .map(CourseView::getName)
                 .collect(Collectors.joining(", "));
     }
-    public void printCourseInfo(Course course) {
+    public void printCourseInfo(CourseView course) {
+        PrintWriter out = ConsoleOutput.open();
+        out.println(course.getName());
+        try (TrackerSnapshot snapshot = snapshots.get()) {
+            printStandings(out, course, snapshot.getStandings(course));
+        }
+        out.flush();
+    }
+
+    // How many enrolled students have at least the given points, also as a share of the course's enrollment.
+    public void printCountAtLeast(CourseView course, int points) {
+        long count = course.countAtLeast(points);
+        int enrolled = course.getEnrolledCount();
+        System.out.println(course.getName() + ": " + count + " of " + enrolled + " students have at least " + points
+                + " points (" + percentOf(points, course.getRequiredCredits()) + "% of " + course.getRequiredCredits()
+                + ").");
+    }
 
-        System.out.println(course.getName());
-        System.out.println("id     points    completed");
-        if (studentMap.isEmpty()) {
+    public void printRank(CourseView course, Student student) {
+        long rank = course.rankOf(student);
+        if (rank == 0) {
+            System.out.println(student.getId() + " has no points in " + course.getName() + ".");
             return;
         }
-        List<Student> sortedStudentList = getSortedStudentsInCourse(course.getName());
-        for (Student student : sortedStudentList) {
-            if (student.getSpecifiedGrade(course.getName()) == 0) {
-                continue;
-            }
-            double percentageCompleted = ((double) student.getSpecifiedGrade(course.getName()) / (double) course.getRequiredCredits()) * 100;
-            percentageCompleted = Math.round(percentageCompleted * 10.0) / 10.0;
-            System.out.println(student.getId() + " " + student.getSpecifiedGrade(course.getName()) +
-                    "       " + percentageCompleted + "%");
-        }
-    }
-
-    private List<Student> getSortedStudentsInCourse(String courseName) {
-        List<Student> sortedStudentList = new ArrayList<>(studentMap.values());
-        switch (courseName) {
-            case "Java" -> {
-                Comparator<Student> studentComparator = Comparator.comparingInt(Student::getJavaGrade)
-                        .reversed()
-                        .thenComparing(Student::getId);
-                sortedStudentList.sort(studentComparator);
-                return sortedStudentList;
-            }
-            case "DSA" -> {
-                Comparator<Student> studentComparator = Comparator.comparingInt(Student::getDSAGrade)
-                        .reversed()
-                        .thenComparing(Student::getId);
-                sortedStudentList.sort(studentComparator);
-                return sortedStudentList;
-            }
-            case "Databases" -> {
-                Comparator<Student> studentComparator = Comparator.comparingInt(Student::getDatabasesGrade)
-                        .reversed()
-                        .thenComparing(Student::getId);
-                sortedStudentList.sort(studentComparator);
-                return sortedStudentList;
-            }
-            case "Spring" -> {
-                Comparator<Student> studentComparator = Comparator.comparingInt(Student::getSpringGrade)
-                        .reversed()
-                        .thenComparing(Student::getId);
-                sortedStudentList.sort(studentComparator);
-                return sortedStudentList;
-            }
-            default -> {
-                return null;
-            }
+        System.out.println(student.getId() + " is ranked " + rank + " of " + course.getEnrolledCount() + " in "
+                + course.getName() + " with " + student.getGrade(course.getId()) + " points.");
+    }
+
+    // The students with points from low to high inclusive, in leaderboard order.
+    public void printRange(CourseView course, int low, int high) {
+        PrintWriter out = ConsoleOutput.open();
+        out.println(course.getName() + ", " + low + " to " + high + " points");
+        try (TrackerSnapshot snapshot = snapshots.get()) {
+            printStandings(out, course, snapshot.getStandingsBetween(course, low, high));
         }
+        out.flush();
+    }
+
+    private static void printStandings(PrintWriter out, CourseView course, Iterable<Course.Standing> standings) {
+        out.println("id     points    completed");
+        for (Course.Standing standing : standings) {
+            Student student = standing.student();
+            int grade = standing.points();
+            out.println(student.getId() + " " + grade +
+                    "       " + percentOf(grade, course.getRequiredCredits()) + "%");
+        }
+    }
+
+    // Points as a percentage of the required credits, rounded to one decimal.
+    private static double percentOf(int points, int requiredCredits) {
+        double percentageCompleted = ((double) points / (double) requiredCredits) * 100;
+        return Math.round(percentageCompleted * 10.0) / 10.0;
+    }
+
+    // The six course rankings shown by the 'statistics' command, each a comma separated list or "n/a".
+    public record Rankings(String mostPopular, String leastPopular, String highestActivity,
+                           String lowestActivity, String easiest, String hardest) {
+    }
+
+    // The activity and difficulty rankings over a recent time window.
+    public record RecentRankings(String highestActivity, String lowestActivity, String easiest, String hardest) {
+    }
+
+    private record CachedRankings(long version, Rankings rankings) {
     }
 }
@@ -0,0 +1,240 @@
+package tracker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+/**
+ * Computes per-course summaries over the whole student population on a fork-join pool of its own.
+ * Populations smaller than the serial threshold, or a parallelism of 1, are handled on the calling thread.
+ * Given a TrackerSnapshot, points are read as of the snapshot while submissions keep arriving; given students
+ * directly, points are read live and a summary reflects roughly the current state.
+ */
+public class StatisticsEngine implements AutoCloseable {
+    public static final int DEFAULT_SERIAL_THRESHOLD = 50_000;
+
+    private final int parallelism;
+    private final int serialThreshold;
+    private ForkJoinPool pool;
+
+    public StatisticsEngine(int parallelism, int serialThreshold) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        this.parallelism = parallelism;
+        this.serialThreshold = serialThreshold;
+    }
+
+    // One engine per available processor, falling back to serial below the default threshold.
+    public static StatisticsEngine withDefaults() {
+        return new StatisticsEngine(Runtime.getRuntime().availableProcessors(), DEFAULT_SERIAL_THRESHOLD);
+    }
+
+    public List<CourseSummary> summarize(TrackerSnapshot snapshot, Collection<? extends CourseView> courseCollection) {
+        return summarize(snapshot.getStudents(), courseCollection, snapshot);
+    }
+
+    public List<CourseSummary> summarize(Collection<Student> studentCollection,
+                                         Collection<? extends CourseView> courseCollection) {
+        return summarize(studentCollection, courseCollection, null);
+    }
+
+    private List<CourseSummary> summarize(Collection<Student> studentCollection,
+                                          Collection<? extends CourseView> courseCollection, TrackerSnapshot snapshot) {
+        Student[] students = studentCollection.toArray(new Student[0]);
+        CourseView[] courses = courseCollection.toArray(new CourseView[0]);
+        boolean parallel = parallelism > 1 && students.length >= serialThreshold;
+        int leafSize = Math.max(1024, students.length / (parallelism * 8));
+        // Each level of the sort merges every value once more, so its leaves are only as many as the workers.
+        int sortLeafSize = Math.max(leafSize, (students.length + parallelism - 1) / parallelism);
+
+        Totals totals = parallel
+                ? pool().invoke(new TotalsTask(students, courses, snapshot, 0, students.length, leafSize))
+                : Totals.of(students, courses, snapshot, 0, students.length);
+
+        List<CourseSummary> summaries = new ArrayList<>(courses.length);
+        for (int c = 0; c < courses.length; c++) {
+            int courseId = courses[c].getId();
+            // Only enrolled students, those with points, take part in the percentiles, so only they are sorted.
+            int[] points = parallel
+                    ? pool().invoke(new EnrolledPointsTask(students, courseId, snapshot, 0, students.length,
+                            sortLeafSize))
+                    : enrolledPoints(students, courseId, snapshot, 0, students.length);
+            int enrolled = points.length;
+            summaries.add(new CourseSummary(courses[c].getName(), enrolled, totals.completed[c], totals.sums[c],
+                    enrolled == 0 ? 0 : (double) totals.sums[c] / enrolled,
+                    percentile(points, 50), percentile(points, 90), percentile(points, 99),
+                    enrolled == 0 ? 0 : points[enrolled - 1]));
+        }
+        return summaries;
+    }
+
+    // The sorted points of the students from 'from' to 'to' who have any in the course.
+    private static int[] enrolledPoints(Student[] students, int courseId, TrackerSnapshot snapshot, int from, int to) {
+        int[] points = new int[to - from];
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            int value = pointsOf(students[i], courseId, snapshot);
+            if (value > 0) {
+                points[count++] = value;
+            }
+        }
+        points = Arrays.copyOf(points, count);
+        Arrays.sort(points);
+        return points;
+    }
+
+    // The student's points as the snapshot sees them, or live without one.
+    private static int pointsOf(Student student, int courseId, TrackerSnapshot snapshot) {
+        return snapshot == null ? student.getGrade(courseId) : snapshot.getPoints(student, courseId);
+    }
+
+    // Nearest-rank percentile of the sorted values.
+    private static int percentile(int[] sorted, int percent) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+
+    private synchronized ForkJoinPool pool() {
+        if (pool == null) {
+            pool = new ForkJoinPool(parallelism);
+        }
+        return pool;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public int getSerialThreshold() {
+        return serialThreshold;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    // Per-course totals over a range of students, indexed like the courses array.
+    private static final class Totals {
+        final long[] sums;
+        final int[] completed;
+
+        Totals(int courseCount) {
+            this.sums = new long[courseCount];
+            this.completed = new int[courseCount];
+        }
+
+        static Totals of(Student[] students, CourseView[] courses, TrackerSnapshot snapshot, int from, int to) {
+            Totals totals = new Totals(courses.length);
+            for (int i = from; i < to; i++) {
+                Student student = students[i];
+                for (int c = 0; c < courses.length; c++) {
+                    int points = pointsOf(student, courses[c].getId(), snapshot);
+                    totals.sums[c] += points;
+                    if (points >= courses[c].getRequiredCredits()) {
+                        totals.completed[c]++;
+                    }
+                }
+            }
+            return totals;
+        }
+
+        Totals merge(Totals other) {
+            for (int c = 0; c < sums.length; c++) {
+                sums[c] += other.sums[c];
+                completed[c] += other.completed[c];
+            }
+            return this;
+        }
+    }
+
+    private static final class TotalsTask extends RecursiveTask<Totals> {
+        private static final long serialVersionUID = 1L;
+        private final Student[] students;
+        private final CourseView[] courses;
+        private final TrackerSnapshot snapshot;
+        private final int from;
+        private final int to;
+        private final int leafSize;
+
+        TotalsTask(Student[] students, CourseView[] courses, TrackerSnapshot snapshot, int from, int to, int leafSize) {
+            this.students = students;
+            this.courses = courses;
+            this.snapshot = snapshot;
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (to - from <= leafSize) {
+                return Totals.of(students, courses, snapshot, from, to);
+            }
+            int middle = (from + to) >>> 1;
+            TotalsTask left = new TotalsTask(students, courses, snapshot, from, middle, leafSize);
+            left.fork();
+            Totals right = new TotalsTask(students, courses, snapshot, middle, to, leafSize).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    // Sorts each leaf's enrolled points and merges the halves, so the whole sort runs on the engine's own pool.
+    private static final class EnrolledPointsTask extends RecursiveTask<int[]> {
+        private static final long serialVersionUID = 1L;
+        private final Student[] students;
+        private final int courseId;
+        private final TrackerSnapshot snapshot;
+        private final int from;
+        private final int to;
+        private final int leafSize;
+
+        EnrolledPointsTask(Student[] students, int courseId, TrackerSnapshot snapshot, int from, int to, int leafSize) {
+            this.students = students;
+            this.courseId = courseId;
+            this.snapshot = snapshot;
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from <= leafSize) {
+                return enrolledPoints(students, courseId, snapshot, from, to);
+            }
+            int middle = (from + to) >>> 1;
+            EnrolledPointsTask left = new EnrolledPointsTask(students, courseId, snapshot, from, middle, leafSize);
+            left.fork();
+            int[] right = new EnrolledPointsTask(students, courseId, snapshot, middle, to, leafSize).compute();
+            return merge(left.join(), right);
+        }
+
+        private static int[] merge(int[] left, int[] right) {
+            int[] merged = new int[left.length + right.length];
+            int l = 0;
+            int r = 0;
+            int m = 0;
+            while (l < left.length && r < right.length) {
+                merged[m++] = left[l] <= right[r] ? left[l++] : right[r++];
+            }
+            System.arraycopy(left, l, merged, m, left.length - l);
+            System.arraycopy(right, r, merged, m + left.length - l, right.length - r);
+            return merged;
+        }
+    }
+
+    // Points statistics for one course over its enrolled students.
+    public record CourseSummary(String course, int enrolled, int completed, long pointsSum, double meanPoints,
+                                int medianPoints, int p90Points, int p99Points, int maxPoints) {
+    }
+}
@@ -1,7 +1,7 @@
 package tracker;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.lang.invoke.VarHandle;
+import java.util.BitSet;
 /**
  * A class representing a student in the system.
  * Contains information about the student, their ID, courses and grades.
@@ -10,32 +10,55 @@ public class Student {
     private String firstName;
     private String lastName;
     private String email;
-    private String id;
-    private final Map<String, Integer> grades;
-    private final Map<String, Integer> submissions;
-    private final Map<String, Course> courseMap;
+    // 0 until the tracker assigns an id; the text form is only built for output.
+    private int numericId;
+    // Points and submission counts indexed by course id; null when they are kept in an off-heap store instead.
+    private final int[] grades;
+    private final int[] submissions;
+    private final OffHeapStudentStore store;
+    // Bit per course id, set once a completion notification has been queued for that course; null until the first.
+    private BitSet completionNotices;
+    // The tracker's courses indexed by id.
+    private final Course[] courses;
+    // The SnapshotClock epoch of the last change to the live progress, or of registration.
+    private volatile int version;
+    // Points as of earlier epochs, newest first, kept while an open snapshot can still see them.
+    private volatile SavedPoints savedPoints;
 
     // Creating student
-    public Student(String id, Map<String, Course> courseMap) {
-        this.id = id;
-        this.courseMap = courseMap;
-        this.grades = new HashMap<>();
-        this.submissions = new HashMap<>();
-        for (CourseType course : CourseType.values()) {
-            this.grades.put(course.getName(), 0);
-            this.submissions.put(course.getName(), 0);
+    public Student(String id, Course[] courses) {
+        this(id, courses, null);
+    }
+
+    // A student whose points and submissions live in the store's row for their id rather than on the heap.
+    public Student(String id, Course[] courses, OffHeapStudentStore store) {
+        this.numericId = id == null ? 0 : Integer.parseInt(id);
+        this.courses = courses;
+        this.store = store;
+        this.grades = store == null ? new int[courses.length] : null;
+        this.submissions = store == null ? new int[courses.length] : null;
+        if (store != null && numericId != 0) {
+            store.bind(numericId);
         }
     }
 
     public boolean addStudent(String input) {
+        String error = applyCredentials(input);
+        if (error != null) {
+            System.out.println(error);
+            return false;
+        }
+        return true;
+    }
+
+    // Validates the credentials line and fills in the student, returning the rejection message or null.
+    public String applyCredentials(String input) {
         String[] entry = input.split(" ");
         if (entry.length < 3) {
-            System.out.println("Incorrect credentials.");
-            return false;
+            return "Incorrect credentials.";
         }
         if (!Validator.isValidName(entry[0])) {
-            System.out.println("Incorrect first name.");
-            return false;
+            return "Incorrect first name.";
         }
         firstName = entry[0];
 
@@ -45,40 +68,134 @@ public class Student {
         }
         String untrimmedLastName = lastNameBuilder.toString();
         if (!Validator.isValidName(untrimmedLastName.trim())) {
-            System.out.println("Incorrect last name.");
-            return false;
+            return "Incorrect last name.";
         }
         lastName = untrimmedLastName.trim();
 
         if (!Validator.isValidEmail(entry[entry.length - 1])) {
-            System.out.println("Incorrect email.");
-            return false;
+            return "Incorrect email.";
         }
         email = entry[entry.length - 1];
-        return true;
+        return null;
     }
 
-    public void sendSubmission(int javaGrade, int dsaGrade, int databasesGrade, int springGrade) {
-        updateGradeAndSubmission(CourseType.JAVA.getName(), javaGrade);
-        updateGradeAndSubmission(CourseType.DSA.getName(), dsaGrade);
-        updateGradeAndSubmission(CourseType.DATABASES.getName(), databasesGrade);
-        updateGradeAndSubmission(CourseType.SPRING.getName(), springGrade);
+    // Updates are serialized per student so concurrent submissions for the same student are not lost.
+    // Scores are indexed by course id; the timestamp places them in the courses' recent activity windows.
+    public synchronized void sendSubmission(long timestamp, int[] scores) {
+        sendSubmission(timestamp, scores, null, null);
     }
 
-    private void updateGradeAndSubmission(String course, int points) {
-        if (points > 0) {
-            grades.put(course, grades.get(course) + points);
-            if (submissions.get(course) == 0) {
-                courseMap.get(course).enrollStudent(this);
+    // As above, also filling totals, when given, with the student's points per course right after this submission.
+    // With a clock, the change is made in its current epoch and open snapshots keep seeing the points from before it.
+    public synchronized void sendSubmission(long timestamp, int[] scores, int[] totals, SnapshotClock clock) {
+        int epoch = clock == null ? 0 : clock.beginWrite();
+        try {
+            if (clock != null) {
+                beginChange(clock, epoch);
+            }
+            for (int courseId = 0; courseId < courses.length; courseId++) {
+                updateGradeAndSubmission(courseId, scores[courseId], timestamp);
+                if (totals != null) {
+                    totals[courseId] = getGrade(courseId);
+                }
+            }
+        } finally {
+            if (clock != null) {
+                clock.endWrite(epoch);
             }
-            submissions.put(course, submissions.get(course) + 1);
-            courseMap.get(course).addEntry(points);
+        }
+    }
+
+    // Saves the live points for the snapshots that can see them, then marks them as changing in the given epoch.
+    // Readers check the version after reading the live points, so it must be updated before the points are.
+    private void beginChange(SnapshotClock clock, int epoch) {
+        int current = version;
+        if (current == epoch) {
+            return;
+        }
+        int oldestOpen = clock.getOldestOpen();
+        if (clock.isVisible(current)) {
+            int[] points = new int[courses.length];
+            for (int courseId = 0; courseId < courses.length; courseId++) {
+                points[courseId] = getGrade(courseId);
+            }
+            savedPoints = new SavedPoints(current, points, prune(savedPoints, oldestOpen));
+            clock.recordChange(epoch, this);
+        } else {
+            savedPoints = prune(savedPoints, oldestOpen);
+        }
+        version = epoch;
+        VarHandle.storeStoreFence();
+    }
+
+    // Drops saved points that no open snapshot needs: everything older than the newest version the oldest one sees.
+    private static SavedPoints prune(SavedPoints saved, int oldestOpen) {
+        if (oldestOpen < 0) {
+            return null;
+        }
+        for (SavedPoints node = saved; node != null; node = node.older) {
+            if (node.epoch <= oldestOpen) {
+                node.older = null;
+                break;
+            }
+        }
+        return saved;
+    }
+
+    // The points as a snapshot taken at the given epoch sees them; 0 if the student was registered after it.
+    int getGradeAt(int courseId, int snapshot) {
+        int current = version;
+        if (current <= snapshot) {
+            int points = getGrade(courseId);
+            VarHandle.acquireFence();
+            if (version == current) {
+                return points;
+            }
+        }
+        for (SavedPoints saved = savedPoints; saved != null; saved = saved.older) {
+            if (saved.epoch <= snapshot) {
+                return saved.points[courseId];
+            }
+        }
+        return 0;
+    }
+
+    // Whether a snapshot taken at the given epoch sees this student, who may have been registered after it.
+    boolean existsAt(int snapshot) {
+        if (version <= snapshot) {
+            return true;
+        }
+        for (SavedPoints saved = savedPoints; saved != null; saved = saved.older) {
+            if (saved.epoch <= snapshot) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Stamps a newly registered student with the epoch it was registered in.
+    void markRegistered(int epoch) {
+        this.version = epoch;
+    }
+
+    private void updateGradeAndSubmission(int index, int points, long timestamp) {
+        if (points > 0) {
+            Course targetCourse = courses[index];
+            int oldGrade = getGrade(index);
+            setProgress(index, oldGrade + points, getSubmissions(index) + 1);
+            targetCourse.updateStanding(this, oldGrade, oldGrade + points);
+            targetCourse.addEntry(points, timestamp);
         }
     }
 
     public void printGrades() {
-        String gradesInfo = String.format("%s points: Java=%d; DSA=%d; Databases=%d; Spring=%d",
-                id, getJavaGrade(), getDSAGrade(), getDatabasesGrade(), getSpringGrade());
+        StringBuilder gradesInfo = new StringBuilder(32 + 16 * courses.length).append(numericId).append(" points: ");
+        for (int courseId = 0; courseId < courses.length; courseId++) {
+            if (courseId > 0) {
+                gradesInfo.append("; ");
+            }
+            gradesInfo.append(courses[courseId].getName()).append('=').append(getGrade(courseId));
+        }
         System.out.println(gradesInfo);
     }
 
@@ -87,27 +204,80 @@ public class Student {
     }
 
     public String getId() {
-        return id;
+        return numericId == 0 ? null : Integer.toString(numericId);
     }
 
-    public int getSpecifiedGrade(String course) {
-        return grades.get(course);
+    public int getNumericId() {
+        return numericId;
+    }
+
+    // Used when reloading a stored student, whose credentials were validated when it was first added.
+    void restoreCredentials(String firstName, String lastName, String email) {
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+    }
+
+    // Reloads snapshot progress into a freshly registered student and puts them back on the leaderboards.
+    synchronized void restoreProgress(int[] grades, int[] submissions, BitSet completionNotices) {
+        this.completionNotices = completionNotices.isEmpty() ? null : (BitSet) completionNotices.clone();
+        for (int index = 0; index < courses.length; index++) {
+            setProgress(index, grades[index], submissions[index]);
+            if (grades[index] > 0) {
+                courses[index].updateStanding(this, 0, grades[index]);
+            }
+        }
+    }
+
+    // A copy of the notified courses, by course id.
+    public synchronized BitSet getCompletionNotices() {
+        return completionNotices == null ? new BitSet() : (BitSet) completionNotices.clone();
     }
 
-    public int getJavaGrade() {
-        return grades.get(CourseType.JAVA.getName());
+    // Ids are handed out by StudentTracker when the student is registered.
+    void assignId(int id) {
+        this.numericId = id;
+        if (store != null) {
+            store.bind(numericId);
+        }
     }
 
-    public int getDSAGrade() {
-        return grades.get(CourseType.DSA.getName());
+    public int getGrade(int courseId) {
+        return store == null ? grades[courseId] : store.getPoints(numericId, courseId);
     }
 
-    public int getDatabasesGrade() {
-        return grades.get(CourseType.DATABASES.getName());
+    public int getSubmissions(int courseId) {
+        return store == null ? submissions[courseId] : store.getSubmissions(numericId, courseId);
     }
 
-    public int getSpringGrade() {
-        return grades.get(CourseType.SPRING.getName());
+    private void setProgress(int courseId, int points, int submissionCount) {
+        if (store == null) {
+            grades[courseId] = points;
+            submissions[courseId] = submissionCount;
+        } else {
+            store.setPoints(numericId, courseId, points);
+            store.setSubmissions(numericId, courseId, submissionCount);
+        }
+    }
+
+    public int getSpecifiedGrade(String course) {
+        for (Course candidate : courses) {
+            if (candidate.getName().equals(course)) {
+                return getGrade(candidate.getId());
+            }
+        }
+        throw new IllegalArgumentException("Unknown course: " + course);
+    }
+
+    // Marks the course as announced, returning false if a notification was already queued for it.
+    public synchronized boolean markCompletionNotified(int courseId) {
+        if (completionNotices == null) {
+            completionNotices = new BitSet(courses.length);
+        } else if (completionNotices.get(courseId)) {
+            return false;
+        }
+        completionNotices.set(courseId);
+        return true;
     }
 
     public String getFirstName() {
@@ -117,4 +287,17 @@ public class Student {
     public String getLastName() {
         return lastName;
     }
-}
\ No newline at end of file
+
+    // Points as of the end of an epoch, for the snapshots taken in it. Older entries are cut off once unneeded.
+    private static final class SavedPoints {
+        final int epoch;
+        final int[] points;
+        volatile SavedPoints older;
+
+        SavedPoints(int epoch, int[] points, SavedPoints older) {
+            this.epoch = epoch;
+            this.points = points;
+            this.older = older;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package tracker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+/**
+ * Students by numeric id, stored densely from the first id in chunks of 4096 slots.
+ * A shard owning every stride-th id from its first id gives each of its ids a slot of its own, without gaps.
+ * A lookup is a bounds check and two array reads; ids arriving as text are parsed once, without regular expressions.
+ * Safe for concurrent registration and lookup.
+ */
+public class StudentIndex {
+    private static final int CHUNK_BITS = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final int firstId;
+    private final int stride;
+    private volatile AtomicReferenceArray<Student>[] chunks = newChunkArray(0);
+    private final AtomicInteger size = new AtomicInteger();
+
+    public StudentIndex(int firstId) {
+        this(firstId, 1);
+    }
+
+    public StudentIndex(int firstId, int stride) {
+        if (stride < 1) {
+            throw new IllegalArgumentException("Stride must be at least 1");
+        }
+        this.firstId = firstId;
+        this.stride = stride;
+    }
+
+    // Parses an id the way it is printed: digits only, no sign or leading zero. Returns -1 for anything else.
+    public static int parseId(String text) {
+        int length = text.length();
+        if (length == 0 || length > 10 || text.charAt(0) == '0') {
+            return -1;
+        }
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value > Integer.MAX_VALUE ? -1 : (int) value;
+    }
+
+    public Student get(int id) {
+        int offset = id - firstId;
+        if (offset < 0 || offset % stride != 0) {
+            return null;
+        }
+        int slot = offset / stride;
+        AtomicReferenceArray<Student>[] current = chunks;
+        if ((slot >>> CHUNK_BITS) >= current.length) {
+            return null;
+        }
+        return current[slot >>> CHUNK_BITS].get(slot & CHUNK_MASK);
+    }
+
+    public Student get(String id) {
+        int numericId = parseId(id);
+        return numericId < 0 ? null : get(numericId);
+    }
+
+    // Stores the student under their numeric id unless that id is taken; returns whether it was stored.
+    public boolean putIfAbsent(Student student) {
+        int offset = student.getNumericId() - firstId;
+        if (offset < 0 || offset % stride != 0) {
+            throw new IllegalArgumentException("Student id " + student.getNumericId() + " does not belong in this index");
+        }
+        int slot = offset / stride;
+        if (!chunkFor(slot).compareAndSet(slot & CHUNK_MASK, null, student)) {
+            return false;
+        }
+        size.incrementAndGet();
+        return true;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public boolean isEmpty() {
+        return size.get() == 0;
+    }
+
+    // Up to limit students with ids greater than afterId, in id order.
+    public List<Student> page(int afterId, int limit) {
+        AtomicReferenceArray<Student>[] current = chunks;
+        long end = (long) current.length * CHUNK_SIZE;
+        List<Student> students = new ArrayList<>(Math.min(limit, Math.min(size.get(), 1 << 20)));
+        long from = (long) afterId + 1 - firstId;
+        for (long slot = from <= 0 ? 0 : (from + stride - 1) / stride; slot < end && students.size() < limit; slot++) {
+            Student student = current[(int) (slot >>> CHUNK_BITS)].get((int) (slot & CHUNK_MASK));
+            if (student != null) {
+                students.add(student);
+            }
+        }
+        return students;
+    }
+
+    // Every student in id order.
+    public List<Student> values() {
+        return page(firstId - 1, Integer.MAX_VALUE);
+    }
+
+    private AtomicReferenceArray<Student> chunkFor(int slot) {
+        int chunk = slot >>> CHUNK_BITS;
+        AtomicReferenceArray<Student>[] current = chunks;
+        if (chunk < current.length) {
+            return current[chunk];
+        }
+        return grow(chunk);
+    }
+
+    private synchronized AtomicReferenceArray<Student> grow(int chunk) {
+        AtomicReferenceArray<Student>[] current = chunks;
+        if (chunk >= current.length) {
+            AtomicReferenceArray<Student>[] grown = newChunkArray(chunk + 1);
+            System.arraycopy(current, 0, grown, 0, current.length);
+            for (int i = current.length; i < grown.length; i++) {
+                grown[i] = new AtomicReferenceArray<>(CHUNK_SIZE);
+            }
+            chunks = grown;
+            current = grown;
+        }
+        return current[chunk];
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static AtomicReferenceArray<Student>[] newChunkArray(int length) {
+        return new AtomicReferenceArray[length];
+    }
+}
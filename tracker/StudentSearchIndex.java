@@ -0,0 +1,164 @@
+package tracker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+/**
+ * Finds students by exact email, by email prefix and by name prefix, kept up to date as students register.
+ * Emails are held twice: as typed in a hash map, which also decides whether an email is taken, and lower-cased
+ * in a sorted set for prefix search. Names are lower-cased into terms (the first name, the last name and each word
+ * of it) and every term keeps its students sorted by id, so the many students sharing a name cost one reference each.
+ * A page of matches costs a seek per matching term plus the page itself, however many students there are.
+ */
+public class StudentSearchIndex {
+    // Lower-cased email, then id, so case variants of one address stay apart.
+    public static final Comparator<Student> EMAIL_ORDER = Comparator
+            .comparing((Student student) -> normalize(student.getEmail()))
+            .thenComparingInt(Student::getNumericId);
+
+    private final Map<String, Student> emails = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<EmailEntry> emailPrefixes = new ConcurrentSkipListSet<>(
+            Comparator.comparing(EmailEntry::email).thenComparingInt(EmailEntry::studentId));
+    private final ConcurrentSkipListMap<String, Postings> nameTerms = new ConcurrentSkipListMap<>();
+
+    // Claims the student's email, returning false if another student already has it.
+    public boolean reserveEmail(Student student) {
+        return emails.putIfAbsent(student.getEmail(), student) == null;
+    }
+
+    // Makes a student whose email is reserved and whose id is assigned searchable.
+    public void add(Student student) {
+        emailPrefixes.add(new EmailEntry(normalize(student.getEmail()), student.getNumericId(), student));
+        for (String term : nameTerms(student)) {
+            nameTerms.computeIfAbsent(term, key -> new Postings()).add(student);
+        }
+    }
+
+    public Student findByEmail(String email) {
+        return emails.get(email);
+    }
+
+    public int size() {
+        return emails.size();
+    }
+
+    // Up to limit students whose email starts with the prefix, ignoring case, in EMAIL_ORDER after the given student.
+    public List<Student> searchByEmail(String prefix, Student after, int limit) {
+        String normalized = normalize(prefix);
+        EmailEntry from = after == null
+                ? new EmailEntry(normalized, Integer.MIN_VALUE, null)
+                : new EmailEntry(normalize(after.getEmail()), after.getNumericId(), null);
+        List<Student> students = new ArrayList<>(Math.min(limit, 64));
+        for (EmailEntry entry : emailPrefixes.tailSet(from, false)) {
+            if (students.size() == limit || !entry.email().startsWith(normalized)) {
+                break;
+            }
+            students.add(entry.student());
+        }
+        return students;
+    }
+
+    // Up to limit students with ids above afterId and a name term starting with the prefix, ignoring case, in id order.
+    public List<Student> searchByName(String prefix, int afterId, int limit) {
+        String normalized = normalize(prefix);
+        List<Student[]> heads = new ArrayList<>();
+        for (Map.Entry<String, Postings> entry : nameTerms.tailMap(normalized).entrySet()) {
+            if (!entry.getKey().startsWith(normalized)) {
+                break;
+            }
+            Student[] head = entry.getValue().after(afterId, limit);
+            if (head.length > 0) {
+                heads.add(head);
+            }
+        }
+        // Each term contributes its first page; merge them by id, dropping students matched by two terms.
+        int[] positions = new int[heads.size()];
+        List<Student> students = new ArrayList<>(Math.min(limit, 64));
+        int lastId = afterId;
+        while (students.size() < limit) {
+            int next = -1;
+            for (int i = 0; i < heads.size(); i++) {
+                if (positions[i] < heads.get(i).length && (next < 0
+                        || heads.get(i)[positions[i]].getNumericId() < heads.get(next)[positions[next]].getNumericId())) {
+                    next = i;
+                }
+            }
+            if (next < 0) {
+                break;
+            }
+            Student student = heads.get(next)[positions[next]++];
+            if (student.getNumericId() != lastId) {
+                students.add(student);
+                lastId = student.getNumericId();
+            }
+        }
+        return students;
+    }
+
+    static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    // The first name, the last name, and each word of a last name made of several words.
+    private static Set<String> nameTerms(Student student) {
+        Set<String> terms = new LinkedHashSet<>();
+        terms.add(normalize(student.getFirstName()));
+        String lastName = normalize(student.getLastName());
+        terms.add(lastName);
+        int start = 0;
+        for (int i = 0; i <= lastName.length(); i++) {
+            if (i == lastName.length() || lastName.charAt(i) == ' ' || lastName.charAt(i) == '-') {
+                if (i > start) {
+                    terms.add(lastName.substring(start, i));
+                }
+                start = i + 1;
+            }
+        }
+        return terms;
+    }
+
+    private record EmailEntry(String email, int studentId, Student student) {
+    }
+
+    // The students sharing one name term, sorted by id. Ids mostly arrive in order, so inserts are appends.
+    private static final class Postings {
+        private Student[] students = new Student[2];
+        private int size;
+
+        synchronized void add(Student student) {
+            if (size == students.length) {
+                students = Arrays.copyOf(students, size * 2);
+            }
+            int position = size;
+            while (position > 0 && students[position - 1].getNumericId() > student.getNumericId()) {
+                students[position] = students[position - 1];
+                position--;
+            }
+            students[position] = student;
+            size++;
+        }
+
+        // Up to limit students with ids above afterId.
+        synchronized Student[] after(int afterId, int limit) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (students[middle].getNumericId() <= afterId) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return Arrays.copyOfRange(students, low, low + Math.min(limit, size - low));
+        }
+    }
+}
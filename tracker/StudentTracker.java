@@ -1,266 +1,505 @@
 package tracker;
 
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 /**
  * A class for managing student data, courses and notifications.
- * Contains methods for adding students, processing commands and outputting information.
+ * Contains methods for adding students and points, looking them up and delivering notifications; TrackerConsole
+ * runs the interactive commands on top of it. Registration and point submission are safe to call from several threads.
  */
-public class StudentTracker {
-
-    private final Set<String> emailList;
-    private final Map<String, Student> studentMap;
+public class StudentTracker implements Tracker {
+
+    // Decides whether an email is taken and finds students by email or name.
+    private final StudentSearchIndex searchIndex;
+    private final StudentIndex studentIndex;
+    private final CourseCatalog catalog;
+    // Courses indexed by catalog id, and by name in catalog order.
+    private final Course[] courses;
     private final Map<String, Course> courseMap;
-
-    private int IDTracker;
-    private ArrayDeque<Notification> pendingNotifications;
-    private ArrayList<Notification> deliveredNotifications;
+    private final Statistics statistics;
+    // Holds points and submission counts outside the heap when set; otherwise each student keeps its own arrays.
+    private final OffHeapStudentStore studentStore;
+
+    private final AtomicInteger nextId;
+    // Ids handed out by this tracker step by the shard count, so each shard owns every shardCount-th id.
+    private final int idStride;
+    private final Deque<Notification> pendingNotifications;
+    private final Queue<Notification> deliveredNotifications;
+    // Handed to the dispatcher and not yet reported delivered or dropped; saved as pending by journal snapshots.
+    private final Set<Notification> inFlightNotifications = ConcurrentHashMap.newKeySet();
+    private final NotificationDispatcher notificationDispatcher;
+    private TrackerJournal journal;
+    // Shared with the other shards when this tracker is one shard of a ShardedTracker.
+    private final TrackerMetrics metrics;
+    private final TrackerEventFeed events;
+    // Versions student progress so statistics can read a consistent point in time while points keep arriving.
+    private final SnapshotClock snapshots;
 
     // The constructor initializes the initial data for the program.
     public StudentTracker() {
-        this.IDTracker = 10000;
-        this.emailList = new HashSet<>();
-        this.studentMap = new LinkedHashMap<>();
-        courseMap = new HashMap<>();
-        courseMap.put("Java", new Course("Java", 600));
-        courseMap.put("DSA", new Course("DSA", 400));
-        courseMap.put("Databases", new Course("Databases", 480));
-        courseMap.put("Spring", new Course("Spring", 550));
-        this.pendingNotifications = new ArrayDeque<>();
-        this.deliveredNotifications = new ArrayList<>();
-    }
-
-    // Starts the main program
-    public void start() {
-        Scanner scanner = new Scanner(System.in);
-        List<Student> studentList = new ArrayList<>();
-
-        System.out.println("Learning Progress Tracker");
-        boolean running = true;
-
-        do {
-            String input = scanner.nextLine();
-
-            if (input.matches("\\s*")) {
-                System.out.println("No input.");
-                continue;
-            }
-            // Commands
-            switch (input) {
-                case "exit" -> {
-                    System.out.println("Bye!");
-                    running = false;
-                }
-                case "back" -> {
-                    System.out.println("Enter 'exit' to exit the program");
-                }
-                case "add students" -> {
-                    addStudents(scanner, studentList);
-                }
-                case "list" -> {
-                    printStudents();
-                }
-                case "add points" -> {
-                    addPoints(scanner);
-                }
-                case "find" -> {
-                    findStudent(scanner);
-                }
-                case "statistics" -> {
-                    showStatistics(scanner);
-                }
-                case "notify" -> {
-                    sendAllNotifications();
-                }
-                default -> System.out.println("Error: unknown command!");
-            }
-        } while (running);
+        this(new NotificationDispatcher(new ConsoleNotificationSink()));
     }
 
-    public void showStatistics(Scanner scanner) {
-        Statistics studentStatistics = new Statistics(studentMap, courseMap);
-        studentStatistics.printAllCourseRankings();
+    public StudentTracker(NotificationDispatcher notificationDispatcher) {
+        this(CourseCatalog.defaults(), notificationDispatcher);
+    }
 
-        while (true) {
-            String input = scanner.nextLine();
-            if (input.equals("back")) {
-                break;
-            }
+    public StudentTracker(CourseCatalog catalog, NotificationDispatcher notificationDispatcher) {
+        this(catalog, notificationDispatcher, false);
+    }
+
+    public StudentTracker(CourseCatalog catalog, NotificationDispatcher notificationDispatcher, boolean offHeap) {
+        this(catalog, notificationDispatcher, offHeap, 0, 1, new TrackerMetrics(), new TrackerEventFeed(),
+                new SnapshotClock());
+    }
+
+    // One shard of a ShardedTracker, owning the ids FIRST_ID + shard, FIRST_ID + shard + shardCount, and so on.
+    // It shares the coordinator's metrics, change feed and snapshot clock.
+    StudentTracker(CourseCatalog catalog, NotificationDispatcher notificationDispatcher, boolean offHeap,
+                   int shard, int shardCount, TrackerMetrics metrics, TrackerEventFeed events,
+                   SnapshotClock snapshots) {
+        this.catalog = catalog;
+        this.metrics = metrics;
+        this.events = events;
+        this.snapshots = snapshots;
+        this.studentStore = offHeap ? new OffHeapStudentStore(FIRST_ID + shard, shardCount, catalog.size()) : null;
+        this.notificationDispatcher = notificationDispatcher;
+        this.nextId = new AtomicInteger(FIRST_ID + shard);
+        this.idStride = shardCount;
+        this.searchIndex = new StudentSearchIndex();
+        this.studentIndex = new StudentIndex(FIRST_ID + shard, shardCount);
+        this.courses = new Course[catalog.size()];
+        this.courseMap = new LinkedHashMap<>();
+        for (int id = 0; id < courses.length; id++) {
+            courses[id] = new Course(id, catalog.getName(id), catalog.getRequiredCredits(id));
+            courseMap.put(courses[id].getName(), courses[id]);
+        }
+        this.statistics = new Statistics(this::openSnapshot, courseMap);
+        this.pendingNotifications = new ConcurrentLinkedDeque<>();
+        this.deliveredNotifications = new ConcurrentLinkedQueue<>();
+    }
+
+    @Override
+    public Student newStudent() {
+        return new Student(null, courses, studentStore);
+    }
 
-            switch (input) {
-                case "java", "Java" ->
-                        studentStatistics.printCourseInfo(courseMap.get("Java"));
-                case "dsa", "DSA" ->
-                        studentStatistics.printCourseInfo(courseMap.get("DSA"));
-                case "Databases", "databases" ->
-                        studentStatistics.printCourseInfo(courseMap.get("Databases"));
-                case "Spring", "spring" ->
-                        studentStatistics.printCourseInfo(courseMap.get("Spring"));
-                default -> System.out.println("Unknown course.");
+    @Override
+    public boolean registerStudent(Student newStudent) {
+        long start = metrics.start();
+        try {
+            if (!searchIndex.reserveEmail(newStudent)) {
+                return false;
+            }
+            TrackerJournal changeLog = beginChange();
+            try {
+                // Registration is a write, so snapshots taken before it finishes do not list the student.
+                int epoch = snapshots.beginWrite();
+                try {
+                    newStudent.assignId(nextId.getAndAdd(idStride));
+                    newStudent.markRegistered(epoch);
+                    // Logged before the student can be found, so no record about them can come before this one.
+                    if (changeLog != null) {
+                        changeLog.logStudentAdded(newStudent);
+                    }
+                    updateMap(newStudent);
+                } finally {
+                    snapshots.endWrite(epoch);
+                }
+                searchIndex.add(newStudent);
+            } finally {
+                endChange(changeLog);
             }
+            events.publish(TrackerEvent.Type.STUDENT_ADDED, System.currentTimeMillis(), newStudent.getNumericId(),
+                    null, 0, 0);
+            return true;
+        } finally {
+            metrics.stop(TrackerMetrics.Operation.ADD_STUDENT, start);
         }
     }
 
-    // Adds a new student to the system.
-    public void addStudents(Scanner scanner, List<Student> studentList) {
-        System.out.println("Enter student credentials or 'back' to return:");
+    // Registers a student under an id chosen by a ShardedTracker, which has already checked that the email is free.
+    public Student registerStudent(int id, String firstName, String lastName, String email) {
+        long start = metrics.start();
+        Student student;
+        TrackerJournal changeLog = beginChange();
+        try {
+            student = addStudent(id, firstName, lastName, email, changeLog);
+            restoreNextId(id + idStride);
+        } finally {
+            endChange(changeLog);
+        }
+        events.publish(TrackerEvent.Type.STUDENT_ADDED, System.currentTimeMillis(), id, null, 0, 0);
+        metrics.stop(TrackerMetrics.Operation.ADD_STUDENT, start);
+        return student;
+    }
 
-        while (true) {
-            Student newStudent = new Student(String.valueOf(IDTracker), courseMap);
-            String input = scanner.nextLine();
+    public void updateMap(Student newStudent) {
+        studentIndex.putIfAbsent(newStudent);
+    }
 
-            if (input.equals("back")) {
-                System.out.println("Total " + studentList.size() + " students have been added.");
-                break;
+    @Override
+    public PointsStatus submitParsedPoints(PointsParser parser) {
+        Student targetStudent = studentIndex.get(parser.getStudentId());
+        if (targetStudent == null) {
+            return PointsStatus.UNKNOWN_STUDENT;
+        }
+        if (!parser.isWellFormed()) {
+            return PointsStatus.BAD_FORMAT;
+        }
+        submitPoints(targetStudent, parser.getScores());
+        return PointsStatus.UPDATED;
+    }
+
+    // Journal replay passes the row's original timestamp.
+    @Override
+    public void submitPoints(Student targetStudent, long timestamp, int[] scores) {
+        // Events are only collected for the change feed, and only while someone is subscribed to it.
+        int[] totals = events.hasSubscribers() ? new int[courses.length] : null;
+        boolean[] completed = totals != null ? new boolean[courses.length] : null;
+        TrackerJournal changeLog = beginChange();
+        try {
+            long start = metrics.start();
+            targetStudent.sendSubmission(timestamp, scores, totals, snapshots);
+            if (changeLog != null) {
+                changeLog.logPointsAdded(targetStudent, timestamp, scores);
             }
+            metrics.stop(TrackerMetrics.Operation.ADD_SUBMISSION, start);
 
-            if (newStudent.addStudent(input)) {
-                if (emailList.contains(newStudent.getEmail())) {
-                    System.out.println("This email is already taken.");
-                    continue;
+            start = metrics.start();
+            for (int courseId = 0; courseId < courses.length; courseId++) {
+                if (checkCourseCompletion(courses[courseId], scores[courseId], targetStudent) && completed != null) {
+                    completed[courseId] = true;
                 }
-                this.emailList.add(newStudent.getEmail());
-                studentList.add(newStudent);
-                updateMap(newStudent);
-                IDTracker++;
-                System.out.println("The student has been added.");
             }
+            metrics.stop(TrackerMetrics.Operation.CHECK_COURSE_COMPLETION, start);
+        } finally {
+            endChange(changeLog);
+        }
+        // Outside the change, as for registration: a subscriber that blocks the feed must not hold up a snapshot.
+        if (totals != null) {
+            publishSubmission(targetStudent, timestamp, scores, totals, completed);
         }
     }
 
-    // Other methods for adding points, etc.
-    public void findStudent(Scanner scanner) {
-        System.out.println("Enter an id or 'back' to return:");
-        while (true) {
-            String input = scanner.nextLine();
-            if (input.equals("back")) {
-                break;
+    // A points event per course the row scored in, preceded by an enrollment event for a student's first points,
+    // then a completion event per course the row completed.
+    private void publishSubmission(Student targetStudent, long timestamp, int[] scores, int[] totals,
+                                   boolean[] completed) {
+        for (int courseId = 0; courseId < courses.length; courseId++) {
+            if (scores[courseId] > 0) {
+                if (totals[courseId] == scores[courseId]) {
+                    events.publish(TrackerEvent.Type.COURSE_ENROLLED, timestamp, targetStudent.getNumericId(),
+                            courses[courseId].getName(), scores[courseId], totals[courseId]);
+                }
+                events.publish(TrackerEvent.Type.POINTS_SUBMITTED, timestamp, targetStudent.getNumericId(),
+                        courses[courseId].getName(), scores[courseId], totals[courseId]);
             }
-            if (isValidStudent(input)) {
-                studentMap.get(input).printGrades();
+        }
+        for (int courseId = 0; courseId < courses.length; courseId++) {
+            if (completed[courseId]) {
+                events.publish(TrackerEvent.Type.COURSE_COMPLETED, timestamp, targetStudent.getNumericId(),
+                        courses[courseId].getName(), scores[courseId], totals[courseId]);
             }
         }
     }
 
-    public boolean isValidStudent(String studentID) {
-        if (!studentID.matches("^\\d+$") || !studentMap.containsKey(studentID)) {
-            System.out.println("No student is found for id=" + studentID + ".");
-            return false;
+    // Queues a notification the first time a score completes the course; returns whether this one did.
+    private boolean checkCourseCompletion(Course course, int score, Student targetStudent) {
+        if (score >= course.getRequiredCredits() && targetStudent.markCompletionNotified(course.getId())) {
+            pendingNotifications.add(new Notification(targetStudent, course));
+            return true;
         }
-        return true;
+        return false;
     }
 
-    public void updateMap(Student newStudent) {
-        studentMap.putIfAbsent(newStudent.getId(), newStudent);
+    @Override
+    public void awaitDurable() {
+        TrackerJournal changeLog = journal;
+        if (changeLog != null) {
+            try {
+                changeLog.awaitDurable(changeLog.getLastSequence());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
     }
 
-    public void printStudents() {
-        if (studentMap.isEmpty()) {
-            System.out.println("No students found.");
-            return;
+    @Override
+    public int deliverPendingNotifications() {
+        if (pendingNotifications.isEmpty()) {
+            return 0;
         }
-        System.out.println("Students:");
-        for (String id : studentMap.keySet()) {
-            System.out.println(id);
+
+        Set<Student> notifiedStudents = new HashSet<>();
+
+        try {
+            while (true) {
+                Notification notification;
+                TrackerJournal changeLog = beginChange();
+                try {
+                    notification = pendingNotifications.poll();
+                    if (notification == null) {
+                        break;
+                    }
+                    inFlightNotifications.add(notification);
+                } finally {
+                    endChange(changeLog);
+                }
+                // Outside the change: a full dispatcher queue must not hold up a journal snapshot.
+                try {
+                    notificationDispatcher.submit(notification, this::notificationCompleted);
+                } catch (InterruptedException e) {
+                    notificationCompleted(notification, false);
+                    throw e;
+                }
+
+                notifiedStudents.add(notification.getStudent());
+            }
+            // Console delivery must finish before the summary line; other sinks keep delivering in the background.
+            if (notificationDispatcher.writesToConsole()) {
+                notificationDispatcher.awaitDelivery();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
+        return notifiedStudents.size();
     }
 
-    public void addPoints(Scanner scanner) {
-        System.out.println("Enter an id and points or 'back' to return:");
-        while (true) {
-            String input = scanner.nextLine();
-            if (input.equals("back")) {
-                break;
+    // Called by the dispatcher once a sink has taken the notification, or after it gave up on it. Only a delivered
+    // notification counts as sent, in memory and in the journal; a dropped one waits for the next 'notify'.
+    private void notificationCompleted(Notification notification, boolean delivered) {
+        TrackerJournal changeLog = beginChange();
+        try {
+            inFlightNotifications.remove(notification);
+            if (delivered) {
+                deliveredNotifications.add(notification);
+                if (changeLog != null) {
+                    changeLog.logNotificationSent(notification);
+                }
+            } else {
+                pendingNotifications.add(notification);
             }
+        } finally {
+            endChange(changeLog);
+        }
+        events.publish(delivered ? TrackerEvent.Type.NOTIFICATION_DELIVERED : TrackerEvent.Type.NOTIFICATION_FAILED,
+                System.currentTimeMillis(), notification.getStudent().getNumericId(),
+                notification.getCourse().getName(), 0,
+                notification.getStudent().getGrade(notification.getCourse().getId()));
+    }
 
-            if (isValidPoints(input)) {
-                addSubmission(input);
-                System.out.println("Points updated.");
+    @Override
+    public void shutdown() {
+        statistics.getEngine().close();
+        events.close();
+        try {
+            notificationDispatcher.close();
+        } catch (IOException e) {
+            System.out.println("Failed to close notification sink: " + e.getMessage());
+        }
+        if (journal != null) {
+            try {
+                journal.snapshot(this);
+                journal.close();
+            } catch (IOException e) {
+                System.out.println("Failed to save tracker state: " + e.getMessage());
             }
         }
     }
 
-    public void addSubmission(String input) {
-        String[] splitInput = input.split("\\s");
-        Student targetStudent = studentMap.get(splitInput[0]);
-
-        int javaScore = Integer.parseInt(splitInput[1]);
-        int dsaScore = Integer.parseInt(splitInput[2]);
-        int databasesScore = Integer.parseInt(splitInput[3]);
-        int springScore = Integer.parseInt(splitInput[4]);
+    // Starts logging changes to the journal; state recovered from it must already be loaded.
+    public void attachJournal(TrackerJournal journal) {
+        this.journal = journal;
+    }
 
-        targetStudent.sendSubmission(javaScore, dsaScore, databasesScore, springScore);
+    // Starts a change that a journal snapshot must see whole, with its log record, or not at all. Returns the journal
+    // to log to and to pass to endChange, or null when there is none.
+    private TrackerJournal beginChange() {
+        TrackerJournal changeLog = journal;
+        if (changeLog != null) {
+            changeLog.beginChange();
+        }
+        return changeLog;
+    }
 
-        checkCourseCompletion("Java", javaScore, targetStudent);
-        checkCourseCompletion("DSA", dsaScore, targetStudent);
-        checkCourseCompletion("Databases", databasesScore, targetStudent);
-        checkCourseCompletion("Spring", springScore, targetStudent);
+    private static void endChange(TrackerJournal changeLog) {
+        if (changeLog != null) {
+            changeLog.endChange();
+        }
     }
 
-    private void checkCourseCompletion(String courseName, int score, Student targetStudent) {
-        if (score >= courseMap.get(courseName).getRequiredCredits()) {
-            Notification newNotification = new Notification(targetStudent, courseMap.get(courseName));
-            for (Notification notification : deliveredNotifications) {
-                if (newNotification.equals(notification)){
-                    return;
-                }
+    @Override
+    public void snapshotIfDue() {
+        if (journal != null) {
+            try {
+                journal.maybeSnapshot(this);
+            } catch (IOException e) {
+                System.out.println("Failed to save tracker snapshot: " + e.getMessage());
             }
-            for (Notification notification : pendingNotifications) {
-                if (newNotification.equals(notification)){
-                    return;
-                }
+        }
+    }
+
+    // Re-creates a stored student under its original id without logging it again.
+    Student restoreStudent(int id, String firstName, String lastName, String email) {
+        return addStudent(id, firstName, lastName, email, null);
+    }
+
+    // Creates the student under the given id and makes it visible, logging it first when given a journal.
+    private Student addStudent(int id, String firstName, String lastName, String email, TrackerJournal changeLog) {
+        Student student = new Student(String.valueOf(id), courses, studentStore);
+        student.restoreCredentials(firstName, lastName, email);
+        searchIndex.reserveEmail(student);
+        int epoch = snapshots.beginWrite();
+        try {
+            student.markRegistered(epoch);
+            if (changeLog != null) {
+                changeLog.logStudentAdded(student);
             }
-            pendingNotifications.add(newNotification);
+            updateMap(student);
+        } finally {
+            snapshots.endWrite(epoch);
         }
+        searchIndex.add(student);
+        return student;
     }
 
-    public boolean isValidPoints(String input) {
-        String validRegex = "^[\\d\\s]+$";
+    void restoreNextId(int id) {
+        nextId.accumulateAndGet(id, Math::max);
+    }
 
-        String[] splitInput = input.split("\\s");
+    void restorePendingNotification(int studentId, int courseId) {
+        pendingNotifications.add(new Notification(getStudent(studentId), courses[courseId]));
+    }
 
-        if (!isValidStudent(splitInput[0])) {
-            System.out.println("No student is found for id=" + splitInput[0] + ".");
-            return false;
+    void restoreSentNotification(int studentId, int courseId) {
+        Notification notification = new Notification(getStudent(studentId), courses[courseId]);
+        if (pendingNotifications.remove(notification)) {
+            deliveredNotifications.add(notification);
         }
+    }
 
-        if (!input.matches(validRegex)) {
-            System.out.println("Incorrect points format.");
-            return false;
-        }
+    @Override
+    public int getNextId() {
+        return nextId.get();
+    }
 
-        if (splitInput.length != 5) {
-            System.out.println("Incorrect points format.");
-            return false;
-        }
-        return true;
+    @Override
+    public int getStudentCount() {
+        return studentIndex.size();
     }
 
-    protected void sendAllNotifications() {
-        if (pendingNotifications.isEmpty()) {
-            System.out.println("Total 0 students have been notified.");
-            return;
-        }
+    @Override
+    public List<Student> getStudentsInIdOrder() {
+        return studentIndex.values();
+    }
 
-        List<Student> notifiedStudents = new ArrayList<>();
+    // Up to limit students with ids greater than afterId, in id order; the last id resumes the next page.
+    // Ids are handed out sequentially, so this lists students in the order they were added.
+    @Override
+    public List<Student> getStudentsPage(int afterId, int limit) {
+        return studentIndex.page(afterId, limit);
+    }
 
-        while (!pendingNotifications.isEmpty()) {
-            Notification notification = pendingNotifications.pop();
-            deliveredNotifications.add(notification);
-            notification.printNotification();
+    @Override
+    public Student getStudent(String studentID) {
+        return studentIndex.get(studentID);
+    }
 
-            if (!notifiedStudents.contains(notification.getStudent())) {
-                notifiedStudents.add(notification.getStudent());
-            }
-        }
+    @Override
+    public Student getStudent(int studentId) {
+        return studentIndex.get(studentId);
+    }
+
+    @Override
+    public List<Student> searchByName(String prefix, int afterId, int limit) {
+        return searchIndex.searchByName(prefix, afterId, limit);
+    }
+
+    @Override
+    public List<Student> searchByEmail(String prefix, Student after, int limit) {
+        return searchIndex.searchByEmail(prefix, after, limit);
+    }
+
+    @Override
+    public Student findByEmail(String email) {
+        return searchIndex.findByEmail(email);
+    }
+
+    public StudentIndex getStudentIndex() {
+        return studentIndex;
+    }
+
+    @Override
+    public Map<String, Course> getCourseMap() {
+        return courseMap;
+    }
 
-        System.out.println("Total " + notifiedStudents.size() +  " students have been notified.");
+    @Override
+    public Statistics getStatistics() {
+        return statistics;
     }
 
-    public ArrayDeque<Notification> getPendingNotifications() {
+    // The off-heap store, or null when students keep their progress on the heap.
+    public OffHeapStudentStore getStudentStore() {
+        return studentStore;
+    }
+
+    @Override
+    public CourseCatalog getCatalog() {
+        return catalog;
+    }
+
+    @Override
+    public Course getCourse(int courseId) {
+        return courses[courseId];
+    }
+
+    @Override
+    public NotificationDispatcher getNotificationDispatcher() {
+        return notificationDispatcher;
+    }
+
+    public Deque<Notification> getPendingNotifications() {
         return pendingNotifications;
     }
 
-    public ArrayList<Notification> getDeliveredNotifications() {
+    // Pending notifications and those handed to the dispatcher but not yet delivered, as a journal snapshot saves them.
+    public List<Notification> getUndeliveredNotifications() {
+        List<Notification> undelivered = new ArrayList<>(pendingNotifications);
+        undelivered.addAll(inFlightNotifications);
+        return undelivered;
+    }
+
+    @Override
+    public int getPendingNotificationCount() {
+        return pendingNotifications.size();
+    }
+
+    @Override
+    public TrackerMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public TrackerEventFeed getEvents() {
+        return events;
+    }
+
+    public SnapshotClock getSnapshotClock() {
+        return snapshots;
+    }
+
+    @Override
+    public TrackerSnapshot openSnapshot() {
+        return new TrackerSnapshot(snapshots, studentIndex::values);
+    }
+
+    public Queue<Notification> getDeliveredNotifications() {
         return deliveredNotifications;
     }
 }
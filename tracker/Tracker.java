@@ -0,0 +1,118 @@
+package tracker;
+
+import java.util.List;
+import java.util.Map;
+/**
+ * Everything the command loop, the HTTP API, the bulk importer and the metrics bean ask of a tracker.
+ * StudentTracker keeps all students in one set of structures; ShardedTracker spreads them over several
+ * StudentTrackers and answers each call from the shards. Registration and point submission are safe to call
+ * from several threads.
+ */
+public interface Tracker {
+    int FIRST_ID = 10000;
+
+    // Creates an unregistered student; it receives its id from registerStudent.
+    Student newStudent();
+
+    // Stores a validated student under the next free id, returning false if the email is already taken.
+    boolean registerStudent(Student newStudent);
+
+    // Validates and registers one credentials line, returning the rejection message or null.
+    default String addStudentLine(String input) {
+        Student newStudent = newStudent();
+        String error = newStudent.applyCredentials(input);
+        if (error != null) {
+            return error;
+        }
+        return registerStudent(newStudent) ? null : "This email is already taken.";
+    }
+
+    // A parser for points lines with one score per course in this tracker's catalog.
+    default PointsParser newPointsParser(boolean commaSeparated) {
+        return new PointsParser(getCatalog().size(), commaSeparated);
+    }
+
+    // Validates and applies one "id points..." line; the line is tokenized once for both.
+    default PointsStatus submitPointsLine(String input, PointsParser parser) {
+        parser.parse(input);
+        return submitParsedPoints(parser);
+    }
+
+    // Applies the line the parser last parsed.
+    PointsStatus submitParsedPoints(PointsParser parser);
+
+    // Applies one already validated points row, scores indexed by course id, and queues completion notifications.
+    default void submitPoints(Student targetStudent, int[] scores) {
+        submitPoints(targetStudent, System.currentTimeMillis(), scores);
+    }
+
+    // As above, for a row submitted at the given time. The scores are not kept, so callers may reuse the array.
+    void submitPoints(Student targetStudent, long timestamp, int[] scores);
+
+    // Blocks until every change made so far would survive a crash; acknowledge a write only once this returns.
+    // Trackers without a journal have nothing to wait for.
+    default void awaitDurable() {
+    }
+
+    // Hands every pending notification to the dispatcher and returns how many distinct students they reach.
+    int deliverPendingNotifications();
+
+    int getPendingNotificationCount();
+
+    int getNextId();
+
+    int getStudentCount();
+
+    List<Student> getStudentsInIdOrder();
+
+    // Up to limit students with ids greater than afterId, in id order; the last id resumes the next page.
+    List<Student> getStudentsPage(int afterId, int limit);
+
+    Student getStudent(String studentID);
+
+    Student getStudent(int studentId);
+
+    // Up to limit students with ids above afterId whose first name, last name or a word of it starts with the prefix.
+    List<Student> searchByName(String prefix, int afterId, int limit);
+
+    // Up to limit students whose email starts with the prefix, in StudentSearchIndex.EMAIL_ORDER after the given one.
+    List<Student> searchByEmail(String prefix, Student after, int limit);
+
+    Student findByEmail(String email);
+
+    CourseCatalog getCatalog();
+
+    // Courses by name, in catalog order.
+    Map<String, ? extends CourseView> getCourseMap();
+
+    CourseView getCourse(int courseId);
+
+    // The course with this exact name or its lowercase form, or null if the catalog has no such course.
+    default CourseView findCourse(String name) {
+        int courseId = getCatalog().findId(name);
+        return courseId < 0 ? null : getCourse(courseId);
+    }
+
+    Statistics getStatistics();
+
+    // A consistent view of every student's points as of now, unaffected by later writes; close it when done.
+    TrackerSnapshot openSnapshot();
+
+    NotificationDispatcher getNotificationDispatcher();
+
+    TrackerMetrics getMetrics();
+
+    // The change feed; subscribe to it for incremental updates instead of re-reading the tracker.
+    TrackerEventFeed getEvents();
+
+    // Saves a journal snapshot if one is due; the command loop calls it between commands.
+    void snapshotIfDue();
+
+    // Waits for queued notifications to be delivered, releases the notification sink and saves a final snapshot.
+    void shutdown();
+
+    // Outcome of one points line, shared by the command loop, bulk import and the HTTP API.
+    enum PointsStatus {
+        UPDATED, UNKNOWN_STUDENT, BAD_FORMAT
+    }
+}
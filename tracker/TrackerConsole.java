@@ -0,0 +1,379 @@
+package tracker;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Scanner;
+/**
+ * The interactive command loop: reads commands from stdin and prints their results.
+ * It only talks to the Tracker interface, so it drives a single StudentTracker and a ShardedTracker alike.
+ */
+public class TrackerConsole {
+    private static final int LIST_PAGE_SIZE = 4096;
+    private static final int SEARCH_PAGE_SIZE = 20;
+
+    private final Tracker tracker;
+    private final TrackerMetrics metrics;
+    // Reused for every line of 'add points'; other callers of submitPointsLine bring their own parser.
+    private final PointsParser pointsParser;
+
+    public TrackerConsole(Tracker tracker) {
+        this.tracker = tracker;
+        this.metrics = tracker.getMetrics();
+        this.pointsParser = tracker.newPointsParser(false);
+    }
+
+    // Runs commands until 'exit'; the caller shuts the tracker down once it returns, after anything else that feeds it.
+    public void start() {
+        Scanner scanner = new Scanner(System.in);
+        List<Student> studentList = new ArrayList<>();
+
+        System.out.println("Learning Progress Tracker");
+        boolean running = true;
+
+        do {
+            String input = scanner.nextLine();
+
+            if (Validator.isBlank(input)) {
+                System.out.println("No input.");
+                continue;
+            }
+            // Commands
+            switch (input) {
+                case "exit" -> {
+                    System.out.println("Bye!");
+                    running = false;
+                }
+                case "back" -> {
+                    System.out.println("Enter 'exit' to exit the program");
+                }
+                case "add students" -> {
+                    addStudents(scanner, studentList);
+                }
+                case "list" -> {
+                    long start = metrics.start();
+                    printStudents();
+                    metrics.stop(TrackerMetrics.Operation.LIST_STUDENTS, start);
+                }
+                case "add points" -> {
+                    addPoints(scanner);
+                }
+                case "find" -> {
+                    findStudent(scanner);
+                }
+                case "statistics" -> {
+                    showStatistics(scanner);
+                }
+                case "notify" -> {
+                    long start = metrics.start();
+                    sendAllNotifications();
+                    metrics.stop(TrackerMetrics.Operation.SEND_ALL_NOTIFICATIONS, start);
+                }
+                case "metrics" -> {
+                    printMetrics();
+                }
+                default -> {
+                    long start = metrics.start();
+                    if (input.startsWith("list ")) {
+                        printStudentsPage(input.substring("list ".length()));
+                        metrics.stop(TrackerMetrics.Operation.LIST_STUDENTS, start);
+                    } else if (input.startsWith("search ")) {
+                        printSearchResults(input.substring("search ".length()));
+                        metrics.stop(TrackerMetrics.Operation.SEARCH_STUDENTS, start);
+                    } else {
+                        System.out.println("Error: unknown command!");
+                    }
+                }
+            }
+            tracker.snapshotIfDue();
+        } while (running);
+    }
+
+    public void showStatistics(Scanner scanner) {
+        Statistics statistics = tracker.getStatistics();
+        long start = metrics.start();
+        statistics.printAllCourseRankings();
+        metrics.stop(TrackerMetrics.Operation.PRINT_ALL_COURSE_RANKINGS, start);
+
+        while (true) {
+            String input = scanner.nextLine();
+            if (input.equals("back")) {
+                break;
+            }
+
+            switch (input) {
+                case "summary" -> statistics.printSummary();
+                case "last hour" -> statistics.printRecentRankings("Last hour", 3_600_000L);
+                case "last day" -> statistics.printRecentRankings("Last day", 86_400_000L);
+                case "last week" -> statistics.printRecentRankings("Last week", 604_800_000L);
+                default -> {
+                    if (isPointsQuery(input)) {
+                        start = metrics.start();
+                        showPointsQuery(statistics, input);
+                        metrics.stop(TrackerMetrics.Operation.QUERY_POINTS, start);
+                        continue;
+                    }
+                    boolean distribution = input.startsWith("distribution ");
+                    CourseView course =
+                            tracker.findCourse(distribution ? input.substring("distribution ".length()) : input);
+                    if (course == null) {
+                        System.out.println("Unknown course.");
+                    } else if (distribution) {
+                        statistics.printDistribution(course);
+                    } else {
+                        start = metrics.start();
+                        statistics.printCourseInfo(course);
+                        metrics.stop(TrackerMetrics.Operation.PRINT_COURSE_INFO, start);
+                    }
+                }
+            }
+        }
+    }
+
+    // Whether the line is an "above", "rank" or "range" query, with or without its arguments.
+    private static boolean isPointsQuery(String input) {
+        String command = input.split(" ", 2)[0];
+        return command.equals("above") || command.equals("rank") || command.equals("range");
+    }
+
+    // Answers "above <course> <points>|<percent>%", "rank <course> <id>" and "range <course> <low> <high>".
+    // The course name may contain spaces, so the numbers are taken from the end of the line.
+    private void showPointsQuery(Statistics statistics, String input) {
+        String[] words = input.split(" ");
+        String command = words[0];
+        int numbers = command.equals("range") ? 2 : 1;
+        if (words.length < 2 + numbers) {
+            printPointsQueryUsage(command);
+            return;
+        }
+        CourseView course = tracker.findCourse(String.join(" ", Arrays.copyOfRange(words, 1, words.length - numbers)));
+        if (course == null) {
+            System.out.println("Unknown course.");
+            return;
+        }
+        String last = words[words.length - 1];
+        switch (command) {
+            case "above" -> {
+                boolean percent = last.endsWith("%");
+                int value = parseCount(percent ? last.substring(0, last.length() - 1) : last);
+                if (value < 0) {
+                    printPointsQueryUsage(command);
+                } else {
+                    // A percentage of the required credits, rounded up to whole points.
+                    statistics.printCountAtLeast(course, percent
+                            ? (int) Math.min(Integer.MAX_VALUE, (value * (long) course.getRequiredCredits() + 99) / 100)
+                            : value);
+                }
+            }
+            case "rank" -> {
+                Student student = tracker.getStudent(last);
+                if (student == null) {
+                    System.out.println("No student is found for id=" + last + ".");
+                } else {
+                    statistics.printRank(course, student);
+                }
+            }
+            default -> {
+                int low = parseCount(words[words.length - 2]);
+                int high = parseCount(last);
+                if (low < 0 || high < 0) {
+                    printPointsQueryUsage(command);
+                } else {
+                    statistics.printRange(course, low, high);
+                }
+            }
+        }
+    }
+
+    private static void printPointsQueryUsage(String command) {
+        switch (command) {
+            case "above" -> System.out.println("Usage: above <course> <points> or above <course> <percent>%");
+            case "rank" -> System.out.println("Usage: rank <course> <id>");
+            default -> System.out.println("Usage: range <course> <lowest points> <highest points>");
+        }
+    }
+
+    // A non-negative int written in digits, or -1.
+    private static int parseCount(String text) {
+        return Validator.isDigits(text) && text.length() < 10 ? Integer.parseInt(text) : -1;
+    }
+
+    // Adds a new student to the system.
+    public void addStudents(Scanner scanner, List<Student> studentList) {
+        System.out.println("Enter student credentials or 'back' to return:");
+
+        while (true) {
+            Student newStudent = tracker.newStudent();
+            String input = scanner.nextLine();
+
+            if (input.equals("back")) {
+                System.out.println("Total " + studentList.size() + " students have been added.");
+                break;
+            }
+
+            if (newStudent.addStudent(input)) {
+                if (!tracker.registerStudent(newStudent)) {
+                    System.out.println("This email is already taken.");
+                    continue;
+                }
+                studentList.add(newStudent);
+                tracker.awaitDurable();
+                System.out.println("The student has been added.");
+            }
+        }
+    }
+
+    public void findStudent(Scanner scanner) {
+        System.out.println("Enter an id or 'back' to return:");
+        while (true) {
+            String input = scanner.nextLine();
+            if (input.equals("back")) {
+                break;
+            }
+            Student student = lookupStudent(input);
+            if (student != null) {
+                student.printGrades();
+            }
+        }
+    }
+
+    private Student lookupStudent(String studentID) {
+        long start = metrics.start();
+        Student student = tracker.getStudent(studentID);
+        if (student == null) {
+            System.out.println("No student is found for id=" + studentID + ".");
+        }
+        metrics.stop(TrackerMetrics.Operation.FIND_STUDENT, start);
+        return student;
+    }
+
+    public void printStudents() {
+        if (tracker.getStudentCount() == 0) {
+            System.out.println("No students found.");
+            return;
+        }
+        PrintWriter out = ConsoleOutput.open();
+        out.println("Students:");
+        int afterId = Tracker.FIRST_ID - 1;
+        List<Student> page;
+        while (!(page = tracker.getStudentsPage(afterId, LIST_PAGE_SIZE)).isEmpty()) {
+            for (Student student : page) {
+                out.println(student.getId());
+            }
+            afterId = page.get(page.size() - 1).getNumericId();
+        }
+        out.flush();
+    }
+
+    // Handles "list <page size> [<after id>]", printing one page and the command for the next one.
+    public void printStudentsPage(String arguments) {
+        String[] parts = arguments.trim().split(" +");
+        if (parts.length > 2 || !Validator.isDigits(parts[0]) || parts[0].length() > 9
+                || (parts.length == 2 && (!Validator.isDigits(parts[1]) || parts[1].length() > 9))) {
+            System.out.println("Usage: list <page size> [<after id>]");
+            return;
+        }
+        int limit = Integer.parseInt(parts[0]);
+        int afterId = parts.length == 2 ? Integer.parseInt(parts[1]) : Tracker.FIRST_ID - 1;
+        List<Student> page = limit == 0 ? List.of() : tracker.getStudentsPage(afterId, limit);
+        if (page.isEmpty()) {
+            System.out.println("No students found.");
+            return;
+        }
+        PrintWriter out = ConsoleOutput.open();
+        out.println("Students:");
+        for (Student student : page) {
+            out.println(student.getId());
+        }
+        int lastId = page.get(page.size() - 1).getNumericId();
+        if (!tracker.getStudentsPage(lastId, 1).isEmpty()) {
+            out.println("Next page: list " + limit + " " + lastId);
+        }
+        out.flush();
+    }
+
+    // Handles "search name|email <prefix> [after <id>]", printing one page of matches and the command for the next.
+    // Name matches come in id order, email matches in email order; the prefix may contain spaces.
+    public void printSearchResults(String arguments) {
+        String[] parts = arguments.trim().split(" +");
+        boolean byName = parts[0].equals("name");
+        boolean paged = parts.length >= 4 && parts[parts.length - 2].equals("after");
+        int afterId = paged ? StudentIndex.parseId(parts[parts.length - 1]) : 0;
+        if ((!byName && !parts[0].equals("email")) || parts.length < 2 || afterId < 0) {
+            System.out.println("Usage: search name|email <prefix> [after <id>]");
+            return;
+        }
+        String prefix = String.join(" ", Arrays.asList(parts).subList(1, paged ? parts.length - 2 : parts.length));
+        List<Student> page;
+        if (byName) {
+            page = tracker.searchByName(prefix, afterId, SEARCH_PAGE_SIZE + 1);
+        } else {
+            Student after = paged ? tracker.getStudent(afterId) : null;
+            if (paged && after == null) {
+                System.out.println("No student is found for id=" + afterId + ".");
+                return;
+            }
+            page = tracker.searchByEmail(prefix, after, SEARCH_PAGE_SIZE + 1);
+        }
+        if (page.isEmpty()) {
+            System.out.println("No students found.");
+            return;
+        }
+        PrintWriter out = ConsoleOutput.open();
+        out.println("Students:");
+        for (Student student : page.subList(0, Math.min(page.size(), SEARCH_PAGE_SIZE))) {
+            out.println(student.getId() + " " + student.getFirstName() + " " + student.getLastName()
+                    + " " + student.getEmail());
+        }
+        if (page.size() > SEARCH_PAGE_SIZE) {
+            out.println("Next page: search " + parts[0] + " " + prefix + " after "
+                    + page.get(SEARCH_PAGE_SIZE - 1).getId());
+        }
+        out.flush();
+    }
+
+    // Gauges, then the count, rate and latency percentiles of every timed operation since startup.
+    public void printMetrics() {
+        PrintWriter out = ConsoleOutput.open();
+        out.println("Students: " + tracker.getStudentCount());
+        out.println("Pending notifications: " + tracker.getPendingNotificationCount());
+        out.println("Delivered notifications: " + tracker.getNotificationDispatcher().getDeliveredCount());
+        out.println(String.format("%-24s %10s %10s %10s %10s %10s", "operation", "count", "per s", "p50 us", "p99 us",
+                "max us"));
+        for (TrackerMetrics.Operation operation : TrackerMetrics.Operation.values()) {
+            PointsHistogram latencies = metrics.getLatencies(operation);
+            out.println(String.format("%-24s %10d %10.1f %10d %10d %10d", operation.getLabel(),
+                    metrics.getCount(operation), metrics.getRate(operation),
+                    latencies.getValueAtQuantile(0.5), latencies.getValueAtQuantile(0.99), latencies.getMaxValue()));
+        }
+        out.flush();
+    }
+
+    public void addPoints(Scanner scanner) {
+        System.out.println("Enter an id and points or 'back' to return:");
+        while (true) {
+            String input = scanner.nextLine();
+            if (input.equals("back")) {
+                break;
+            }
+
+            switch (tracker.submitPointsLine(input, pointsParser)) {
+                case UPDATED -> {
+                    tracker.awaitDurable();
+                    System.out.println("Points updated.");
+                }
+                case UNKNOWN_STUDENT -> {
+                    // Reported twice, as the command always has.
+                    System.out.println("No student is found for id=" + pointsParser.getStudentId() + ".");
+                    System.out.println("No student is found for id=" + pointsParser.getStudentId() + ".");
+                }
+                case BAD_FORMAT -> System.out.println("Incorrect points format.");
+            }
+        }
+    }
+
+    public void sendAllNotifications() {
+        System.out.println("Total " + tracker.deliverPendingNotifications() +  " students have been notified.");
+    }
+}
@@ -0,0 +1,34 @@
+package tracker;
+/**
+ * One change to the tracker's state, as published on a TrackerEventFeed.
+ * Sequence numbers are unique and rise in publishing order, so a subscriber can put batches back in order and
+ * tell how many events its overflow policy dropped. Course is null for STUDENT_ADDED; points are the submitted
+ * score and totalPoints the student's points in the course afterwards, both 0 where they do not apply.
+ */
+public record TrackerEvent(long sequence, Type type, long timestamp, int studentId, String course, int points,
+                           int totalPoints) {
+    public enum Type {
+        STUDENT_ADDED,
+        POINTS_SUBMITTED,
+        COURSE_ENROLLED,
+        COURSE_COMPLETED,
+        // Published once a notification sink has taken the notification.
+        NOTIFICATION_DELIVERED,
+        // Published when the dispatcher drops a notification after its retries; it is pending again.
+        NOTIFICATION_FAILED
+    }
+
+    // The event as one line of JSON, as streamed by GET /events.
+    public String toJson() {
+        StringBuilder json = new StringBuilder(128).append("{\"sequence\":").append(sequence)
+                .append(",\"type\":\"").append(type).append('"')
+                .append(",\"timestamp\":").append(timestamp)
+                .append(",\"id\":\"").append(studentId).append('"');
+        if (course != null) {
+            json.append(",\"course\":").append(TrackerHttpServer.quote(course))
+                    .append(",\"points\":").append(points)
+                    .append(",\"totalPoints\":").append(totalPoints);
+        }
+        return json.append('}').toString();
+    }
+}
@@ -0,0 +1,215 @@
+package tracker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+/**
+ * A Flow publisher of the tracker's changes, delivered to each subscriber in batches of events.
+ * Every subscriber gets a bounded buffer and a daemon thread that drains it, one batch per requested item, so a slow
+ * subscriber never holds up the others. When a buffer is full the subscriber's overflow policy decides whether the
+ * publishing tracker thread waits for room or an event is dropped. Publishing costs one volatile read while nobody
+ * is subscribed.
+ */
+public class TrackerEventFeed implements Flow.Publisher<List<TrackerEvent>>, AutoCloseable {
+    public static final int DEFAULT_CAPACITY = 8192;
+    public static final int DEFAULT_BATCH_SIZE = 256;
+    private static final long POLL_MILLIS = 100;
+
+    public enum OverflowPolicy {
+        // The publishing thread waits until the subscriber makes room; nothing is lost.
+        BLOCK,
+        // The oldest buffered event makes room for the new one.
+        DROP_OLDEST,
+        // The new event is discarded.
+        DROP_NEWEST
+    }
+
+    private final List<EventSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final AtomicLong nextSequence = new AtomicLong(1);
+    private final AtomicInteger nextWorker = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean closed;
+
+    // Subscribes with the default buffer and batch sizes, dropping the oldest events when the buffer fills up.
+    @Override
+    public void subscribe(Flow.Subscriber<? super List<TrackerEvent>> subscriber) {
+        subscribe(subscriber, DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE, OverflowPolicy.DROP_OLDEST);
+    }
+
+    // Events published from now on are buffered for the subscriber; it receives onSubscribe on its delivery thread.
+    public Flow.Subscription subscribe(Flow.Subscriber<? super List<TrackerEvent>> subscriber, int capacity,
+                                       int batchSize, OverflowPolicy policy) {
+        if (capacity < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Capacity and batch size must be positive");
+        }
+        EventSubscription subscription = new EventSubscription(subscriber, capacity, batchSize, policy);
+        if (!closed) {
+            subscriptions.add(subscription);
+        }
+        subscription.start("event-feed-" + nextWorker.getAndIncrement());
+        return subscription;
+    }
+
+    public boolean hasSubscribers() {
+        return !subscriptions.isEmpty();
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    // Events discarded by overflow policies, or left in a buffer when the feed closed, summed over all subscribers.
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    // Hands the event to every subscriber, applying each one's overflow policy.
+    public void publish(TrackerEvent.Type type, long timestamp, int studentId, String course, int points,
+                        int totalPoints) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        TrackerEvent event = new TrackerEvent(nextSequence.getAndIncrement(), type, timestamp, studentId, course,
+                points, totalPoints);
+        for (EventSubscription subscription : subscriptions) {
+            subscription.offer(event);
+        }
+    }
+
+    // Stops publishing; each subscriber still receives what it requests from its buffer and then onComplete.
+    @Override
+    public void close() {
+        closed = true;
+        for (EventSubscription subscription : subscriptions) {
+            subscription.wakeUp();
+        }
+        subscriptions.clear();
+    }
+
+    private class EventSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super List<TrackerEvent>> subscriber;
+        private final BlockingQueue<TrackerEvent> buffer;
+        private final int batchSize;
+        private final OverflowPolicy policy;
+        // Batches requested and not yet delivered; guarded by this.
+        private long demand;
+        private volatile boolean cancelled;
+        private volatile Throwable requestError;
+
+        EventSubscription(Flow.Subscriber<? super List<TrackerEvent>> subscriber, int capacity, int batchSize,
+                          OverflowPolicy policy) {
+            this.subscriber = subscriber;
+            this.buffer = new ArrayBlockingQueue<>(capacity);
+            this.batchSize = batchSize;
+            this.policy = policy;
+        }
+
+        void start(String name) {
+            Thread worker = new Thread(this::deliverLoop, name);
+            worker.setDaemon(true);
+            worker.start();
+        }
+
+        void offer(TrackerEvent event) {
+            if (buffer.offer(event)) {
+                return;
+            }
+            switch (policy) {
+                case BLOCK -> {
+                    try {
+                        while (!buffer.offer(event, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                            if (cancelled || closed) {
+                                return;
+                            }
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        dropped.incrementAndGet();
+                    }
+                }
+                case DROP_OLDEST -> {
+                    while (!buffer.offer(event)) {
+                        if (buffer.poll() != null) {
+                            dropped.incrementAndGet();
+                        }
+                    }
+                }
+                case DROP_NEWEST -> dropped.incrementAndGet();
+            }
+        }
+
+        @Override
+        public synchronized void request(long n) {
+            if (n <= 0) {
+                requestError = new IllegalArgumentException("Requested " + n + " batches; the count must be positive");
+            } else {
+                demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+            }
+            notifyAll();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+            wakeUp();
+        }
+
+        synchronized void wakeUp() {
+            notifyAll();
+        }
+
+        private void deliverLoop() {
+            try {
+                subscriber.onSubscribe(this);
+                List<TrackerEvent> batch = new ArrayList<>(batchSize);
+                while (awaitDemand()) {
+                    TrackerEvent first = buffer.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        if (closed) {
+                            break;
+                        }
+                        continue;
+                    }
+                    batch.add(first);
+                    buffer.drainTo(batch, batchSize - 1);
+                    synchronized (this) {
+                        demand--;
+                    }
+                    subscriber.onNext(List.copyOf(batch));
+                    batch.clear();
+                }
+                if (requestError != null) {
+                    subscriptions.remove(this);
+                    subscriber.onError(requestError);
+                } else if (!cancelled) {
+                    if (!buffer.isEmpty()) {
+                        dropped.addAndGet(buffer.size());
+                    }
+                    subscriber.onComplete();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                // A subscriber that throws is treated as having cancelled.
+                cancel();
+                System.err.println("Event subscriber failed and was cancelled: " + e);
+            }
+        }
+
+        // Waits until the subscriber wants another batch. Returns false once it cancels or makes an invalid request,
+        // and once the feed is closed while it has nothing requested.
+        private synchronized boolean awaitDemand() throws InterruptedException {
+            while (demand == 0 && !cancelled && !closed && requestError == null) {
+                wait(POLL_MILLIS);
+            }
+            return demand > 0 && !cancelled && requestError == null;
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package tracker;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+/**
+ * An embedded HTTP/JSON front end for the tracker.
+ * Request bodies use the same line formats as the interactive commands; responses are JSON.
+ *
+ * POST /students             one credentials line          -> {"id": ...}
+ * POST /points               one "id points..." line       -> {"status": ...}
+ * POST /points/batch         many "id points..." lines     -> {"updated": n, "rejected": m}
+ * GET  /students             student ids, ?limit=n&after=id pages through them
+ * GET  /students/{id}        points per course
+ * GET  /statistics           course rankings
+ * GET  /statistics/{course}  course leaderboard as of the request, ?limit=n
+ * POST /notify               deliver pending notifications -> {"notified": n}; 409 while the console sink is active,
+ *                            since its messages would land in the interactive session's output
+ * GET  /events               server-sent events, one TrackerEvent as JSON per message, until the client leaves
+ */
+public class TrackerHttpServer implements AutoCloseable {
+    private static final int CLOSE_TIMEOUT_SECONDS = 10;
+
+    private final Tracker tracker;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public TrackerHttpServer(Tracker tracker, int port, int threads) throws IOException {
+        this.tracker = tracker;
+        // Headers and body go out in separate writes; without TCP_NODELAY each small response waits on a delayed ACK.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        this.server = HttpServer.create(new InetSocketAddress(port), 1024);
+        // JDK 17 has no virtual threads, so requests run on a fixed pool of daemon threads.
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "http-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        if (exchange.getRequestMethod().equals("GET") && exchange.getRequestURI().getPath().equals("/events")) {
+            streamEvents(exchange);
+            return;
+        }
+        try (exchange) {
+            try {
+                route(exchange);
+            } catch (RuntimeException e) {
+                // A response whose status line is already out cannot get a second one; closing the exchange cuts it
+                // short for the client instead.
+                if (exchange.getResponseCode() == -1) {
+                    send(exchange, 500, error(e.toString()));
+                } else {
+                    System.err.println("HTTP " + exchange.getRequestMethod() + " " + exchange.getRequestURI()
+                            + " failed after its response started: " + e);
+                }
+            }
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        if (path.length() > 1 && path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+
+        if (method.equals("POST") && path.equals("/students")) {
+            addStudent(exchange);
+        } else if (method.equals("POST") && path.equals("/points")) {
+            addPoints(exchange);
+        } else if (method.equals("POST") && path.equals("/points/batch")) {
+            addPointsBatch(exchange);
+        } else if (method.equals("GET") && path.equals("/students")) {
+            listStudents(exchange);
+        } else if (method.equals("GET") && path.startsWith("/students/")) {
+            findStudent(exchange, path.substring("/students/".length()));
+        } else if (method.equals("GET") && path.equals("/statistics")) {
+            showRankings(exchange);
+        } else if (method.equals("GET") && path.startsWith("/statistics/")) {
+            showCourse(exchange, path.substring("/statistics/".length()));
+        } else if (method.equals("POST") && path.equals("/notify")) {
+            notifyStudents(exchange);
+        } else {
+            send(exchange, 404, error("Unknown endpoint " + method + " " + path + "."));
+        }
+    }
+
+    private void notifyStudents(HttpExchange exchange) throws IOException {
+        if (tracker.getNotificationDispatcher().writesToConsole()) {
+            send(exchange, 409, error("Notifications go to the console; use the 'notify' command instead."));
+            return;
+        }
+        send(exchange, 200, "{\"notified\":" + tracker.deliverPendingNotifications() + "}");
+    }
+
+    private void addStudent(HttpExchange exchange) throws IOException {
+        Student newStudent = tracker.newStudent();
+        String error = newStudent.applyCredentials(readBody(exchange).trim());
+        if (error == null && !tracker.registerStudent(newStudent)) {
+            error = "This email is already taken.";
+        }
+        if (error != null) {
+            send(exchange, 400, error(error));
+            return;
+        }
+        tracker.awaitDurable();
+        send(exchange, 201, "{\"id\":" + quote(newStudent.getId()) + "}");
+    }
+
+    private void addPoints(HttpExchange exchange) throws IOException {
+        PointsParser parser = tracker.newPointsParser(false);
+        switch (tracker.submitPointsLine(readBody(exchange).trim(), parser)) {
+            case UPDATED -> {
+                tracker.awaitDurable();
+                send(exchange, 200, "{\"status\":\"Points updated.\"}");
+            }
+            case UNKNOWN_STUDENT -> send(exchange, 404, error("No student is found for id=" + parser.getStudentId() + "."));
+            case BAD_FORMAT -> send(exchange, 400, error("Incorrect points format."));
+        }
+    }
+
+    private void addPointsBatch(HttpExchange exchange) throws IOException {
+        PointsParser parser = tracker.newPointsParser(false);
+        String body = readBody(exchange);
+        int updated = 0;
+        int rejected = 0;
+        int start = 0;
+        while (start < body.length()) {
+            int end = body.indexOf('\n', start);
+            if (end < 0) {
+                end = body.length();
+            }
+            String line = body.substring(start, end);
+            start = end + 1;
+            if (Validator.isBlank(line)) {
+                continue;
+            }
+            if (tracker.submitPointsLine(line, parser) == Tracker.PointsStatus.UPDATED) {
+                updated++;
+            } else {
+                rejected++;
+            }
+        }
+        // One wait for the whole batch, so its rows share the journal's fsyncs.
+        tracker.awaitDurable();
+        send(exchange, 200, "{\"updated\":" + updated + ",\"rejected\":" + rejected + "}");
+    }
+
+    private void listStudents(HttpExchange exchange) throws IOException {
+        int limit = queryParameter(exchange, "limit", Integer.MAX_VALUE);
+        List<Student> page = tracker.getStudentsPage(queryParameter(exchange, "after", 0), limit);
+        StringBuilder json = new StringBuilder(page.size() * 8 + 32).append("{\"students\":[");
+        for (int i = 0; i < page.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(quote(page.get(i).getId()));
+        }
+        json.append(']');
+        if (page.size() == limit && !page.isEmpty()) {
+            json.append(",\"next\":").append(quote(page.get(page.size() - 1).getId()));
+        }
+        send(exchange, 200, json.append('}').toString());
+    }
+
+    private void findStudent(HttpExchange exchange, String studentId) throws IOException {
+        Student student = tracker.getStudent(studentId);
+        if (student == null) {
+            send(exchange, 404, error("No student is found for id=" + studentId + "."));
+            return;
+        }
+        StringBuilder json = new StringBuilder("{\"id\":").append(quote(student.getId())).append(",\"points\":{");
+        CourseCatalog catalog = tracker.getCatalog();
+        for (int courseId = 0; courseId < catalog.size(); courseId++) {
+            if (courseId > 0) {
+                json.append(',');
+            }
+            json.append(quote(catalog.getName(courseId))).append(':').append(student.getGrade(courseId));
+        }
+        send(exchange, 200, json.append("}}").toString());
+    }
+
+    private void showRankings(HttpExchange exchange) throws IOException {
+        Statistics.Rankings rankings = tracker.getStatistics().computeRankings();
+        send(exchange, 200, "{\"mostPopular\":" + quote(rankings.mostPopular())
+                + ",\"leastPopular\":" + quote(rankings.leastPopular())
+                + ",\"highestActivity\":" + quote(rankings.highestActivity())
+                + ",\"lowestActivity\":" + quote(rankings.lowestActivity())
+                + ",\"easiest\":" + quote(rankings.easiest())
+                + ",\"hardest\":" + quote(rankings.hardest()) + "}");
+    }
+
+    private void showCourse(HttpExchange exchange, String courseName) throws IOException {
+        CourseView course = tracker.findCourse(courseName);
+        if (course == null) {
+            send(exchange, 404, error("Unknown course."));
+            return;
+        }
+        int limit = queryParameter(exchange, "limit", Integer.MAX_VALUE);
+        List<Course.Standing> standings;
+        try (TrackerSnapshot snapshot = tracker.openSnapshot()) {
+            standings = snapshot.getTopStandings(course, limit);
+        }
+
+        StringBuilder json = new StringBuilder("{\"course\":").append(quote(course.getName())).append(",\"students\":[");
+        int count = 0;
+        for (Course.Standing standing : standings) {
+            if (count++ > 0) {
+                json.append(',');
+            }
+            double completed = Math.round((double) standing.points() / course.getRequiredCredits() * 1000.0) / 10.0;
+            json.append("{\"id\":").append(quote(standing.student().getId()))
+                    .append(",\"points\":").append(standing.points())
+                    .append(",\"completed\":").append(completed).append('}');
+        }
+        send(exchange, 200, json.append("]}").toString());
+    }
+
+    // Subscribes the client to the change feed. The exchange stays open once the handler returns, so a stream does
+    // not hold an HTTP worker; a client that has gone away is noticed, and unsubscribed, at the next write.
+    private void streamEvents(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream; charset=utf-8");
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+        tracker.getEvents().subscribe(new Flow.Subscriber<>() {
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(List<TrackerEvent> batch) {
+                StringBuilder messages = new StringBuilder(batch.size() * 160);
+                for (TrackerEvent event : batch) {
+                    messages.append("id: ").append(event.sequence()).append("\ndata: ").append(event.toJson())
+                            .append("\n\n");
+                }
+                try {
+                    out.write(messages.toString().getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                    subscription.request(1);
+                } catch (IOException e) {
+                    subscription.cancel();
+                    exchange.close();
+                }
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                exchange.close();
+            }
+
+            @Override
+            public void onComplete() {
+                exchange.close();
+            }
+        });
+    }
+
+    // A non-negative integer query parameter, or the default when it is missing or malformed.
+    private static int queryParameter(HttpExchange exchange, String name, int defaultValue) {
+        String query = exchange.getRequestURI().getQuery();
+        if (query == null) {
+            return defaultValue;
+        }
+        for (String parameter : query.split("&")) {
+            if (parameter.startsWith(name + "=")) {
+                String value = parameter.substring(name.length() + 1);
+                return Validator.isDigits(value) && value.length() < 10 ? Integer.parseInt(value) : defaultValue;
+            }
+        }
+        return defaultValue;
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String error(String message) {
+        return "{\"error\":" + quote(message) + "}";
+    }
+
+    static String quote(String value) {
+        StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> quoted.append("\\\"");
+                case '\\' -> quoted.append("\\\\");
+                case '\n' -> quoted.append("\\n");
+                case '\r' -> quoted.append("\\r");
+                case '\t' -> quoted.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        quoted.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+                }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    // Stops accepting requests and waits for those already running, so the tracker can be shut down once it returns.
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                System.out.println("HTTP requests still running after " + CLOSE_TIMEOUT_SECONDS + " seconds.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,636 @@
+package tracker;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+/**
+ * A class for persisting tracker state in a data directory.
+ * Changes are appended to a binary log that a background thread writes and fsyncs in groups;
+ * snapshots of the whole state let startup replay only the records written after them.
+ * Appending does not wait for the disk: a writer acknowledges a change only after awaitDurable, and writers waiting
+ * together share one fsync. A batch whose write or fsync fails is kept and written again until it succeeds.
+ * Trackers apply and log each change between beginChange and endChange; a snapshot waits for the changes in progress
+ * and holds off new ones, so it contains exactly the changes logged up to its sequence.
+ */
+public class TrackerJournal implements AutoCloseable {
+    private static final String LOG_FILE = "tracker.log";
+    private static final String SNAPSHOT_FILE = "tracker.snapshot";
+    private static final int SNAPSHOT_MAGIC = 0x4C505453;
+    // Version 2 adds the courses' recent activity buckets, version 3 completion notices for any number of courses,
+    // version 4 the courses' score histograms. Older snapshots are still readable.
+    private static final int SNAPSHOT_VERSION = 4;
+
+    static final byte STUDENT_ADDED = 1;
+    static final byte POINTS_ADDED = 2;
+    static final byte NOTIFICATION_SENT = 3;
+
+    private static final long COMMIT_INTERVAL_MILLIS = 5;
+    private static final long RETRY_INTERVAL_MILLIS = 1000;
+    private static final int COMMIT_THRESHOLD_BYTES = 1 << 20;
+    private static final int SNAPSHOT_THRESHOLD_RECORDS = 1_000_000;
+
+    private final Path logPath;
+    private final Path snapshotPath;
+    private FileChannel logChannel;
+    private Thread committer;
+    private volatile boolean running;
+
+    // Records waiting for the committer, guarded by this; commitLock is always taken before this.
+    private ByteBuffer pending = ByteBuffer.allocate(64 * 1024);
+    // The batch being committed, guarded by commitLock. It stays in write mode and keeps its records until they are
+    // durable, so a batch whose write or fsync failed is written again from the start by the next commit.
+    private ByteBuffer writing = ByteBuffer.allocate(64 * 1024);
+    private long writingSequence;
+    // Length of the log up to the last durable record, guarded by commitLock; batches are written from here.
+    private long durablePosition;
+    private int recordStart;
+    private final Object commitLock = new Object();
+    // Shared by changes while they are applied and logged, exclusive for a snapshot.
+    private final ReentrantReadWriteLock changeLock = new ReentrantReadWriteLock();
+    private final CRC32 crc = new CRC32();
+    private long lastSequence;
+    private long durableSequence;
+    private int durabilityWaiters;
+    private long recordsSinceSnapshot;
+    private long skippedRecords;
+
+    private long commitCount;
+    private long committedBytes;
+    private long commitNanos;
+
+    public TrackerJournal(Path dataDirectory) throws IOException {
+        Files.createDirectories(dataDirectory);
+        this.logPath = dataDirectory.resolve(LOG_FILE);
+        this.snapshotPath = dataDirectory.resolve(SNAPSHOT_FILE);
+    }
+
+    // Loads the latest snapshot into the tracker, replays the log written after it and opens the log for appends.
+    public String recover(StudentTracker tracker) throws IOException {
+        long start = System.nanoTime();
+        int snapshotStudents = 0;
+        if (Files.exists(snapshotPath)) {
+            snapshotStudents = readSnapshot(tracker);
+        }
+        long replayed = replayLog(tracker);
+        recordsSinceSnapshot = replayed;
+
+        logChannel = FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        durablePosition = logChannel.size();
+        running = true;
+        committer = new Thread(this::commitLoop, "journal-committer");
+        committer.setDaemon(true);
+        committer.start();
+
+        String skipped = skippedRecords == 0 ? ""
+                : " Skipped " + skippedRecords + " log records for students the log never added.";
+        return "Recovered " + snapshotStudents + " students from snapshot and " + replayed
+                + " log records in " + (System.nanoTime() - start) / 1_000_000 + " ms." + skipped;
+    }
+
+    // Brackets a change to the tracker together with its log record. Not reentrant with snapshot: a thread inside a
+    // change must not take one.
+    public void beginChange() {
+        changeLock.readLock().lock();
+    }
+
+    public void endChange() {
+        changeLock.readLock().unlock();
+    }
+
+    public void logStudentAdded(Student student) {
+        byte[] firstName = student.getFirstName().getBytes(StandardCharsets.UTF_8);
+        byte[] lastName = student.getLastName().getBytes(StandardCharsets.UTF_8);
+        byte[] email = student.getEmail().getBytes(StandardCharsets.UTF_8);
+        synchronized (this) {
+            ByteBuffer record = beginRecord(STUDENT_ADDED, 4 + 6 + firstName.length + lastName.length + email.length);
+            record.putInt(student.getNumericId());
+            putBytes(record, firstName);
+            putBytes(record, lastName);
+            putBytes(record, email);
+            endRecord();
+        }
+    }
+
+    public synchronized void logPointsAdded(Student student, long timestamp, int[] scores) {
+        ByteBuffer record = beginRecord(POINTS_ADDED, 4 + 8 + 1 + 4 * scores.length);
+        record.putInt(student.getNumericId());
+        record.putLong(timestamp);
+        record.put((byte) scores.length);
+        for (int score : scores) {
+            record.putInt(score);
+        }
+        endRecord();
+    }
+
+    public synchronized void logNotificationSent(Notification notification) {
+        ByteBuffer record = beginRecord(NOTIFICATION_SENT, 4 + 1);
+        record.putInt(notification.getStudent().getNumericId());
+        record.put((byte) notification.getCourse().getId());
+        endRecord();
+    }
+
+    // Record layout: int body length, int CRC32 of the body, then the body (type, sequence, fields).
+    private ByteBuffer beginRecord(byte type, int fieldBytes) {
+        int bodyLength = 1 + 8 + fieldBytes;
+        if (pending.remaining() < 8 + bodyLength) {
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + 8 + bodyLength));
+            pending.flip();
+            grown.put(pending);
+            pending = grown;
+        }
+        recordStart = pending.position();
+        pending.putInt(bodyLength);
+        pending.putInt(0);
+        pending.put(type);
+        pending.putLong(++lastSequence);
+        return pending;
+    }
+
+    private void endRecord() {
+        int bodyStart = recordStart + 8;
+        crc.reset();
+        crc.update(pending.array(), bodyStart, pending.position() - bodyStart);
+        pending.putInt(recordStart + 4, (int) crc.getValue());
+        recordsSinceSnapshot++;
+        if (pending.position() >= COMMIT_THRESHOLD_BYTES) {
+            notifyAll();
+        }
+    }
+
+    private static void putBytes(ByteBuffer record, byte[] bytes) {
+        record.putShort((short) bytes.length);
+        record.put(bytes);
+    }
+
+    // Writes whatever has accumulated since the last commit with a single write and fsync.
+    private void commitLoop() {
+        while (running) {
+            try {
+                synchronized (this) {
+                    // Records gather for up to the commit interval unless a writer is waiting for them.
+                    if (pending.position() < COMMIT_THRESHOLD_BYTES
+                            && (durabilityWaiters == 0 || durableSequence == lastSequence)) {
+                        wait(COMMIT_INTERVAL_MILLIS);
+                    }
+                }
+                commit();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException e) {
+                System.err.println("Journal commit failed, retrying: " + e.getMessage());
+                try {
+                    Thread.sleep(RETRY_INTERVAL_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void commit() throws IOException {
+        synchronized (commitLock) {
+            long batchSequence;
+            synchronized (this) {
+                // A batch left over from a failed commit goes out first; what was appended since waits for the next.
+                if (writing.position() == 0) {
+                    if (pending.position() == 0) {
+                        return;
+                    }
+                    ByteBuffer batch = pending;
+                    pending = writing;
+                    writing = batch;
+                    writingSequence = lastSequence;
+                }
+                batchSequence = writingSequence;
+            }
+            long start = System.nanoTime();
+            // The whole batch is written again after a failure: a failed fsync may have dropped its dirty pages.
+            int bytes = writing.position();
+            long end = writeAt(writing, durablePosition);
+            logChannel.force(false);
+            writing.clear();
+            durablePosition = end;
+            synchronized (this) {
+                durableSequence = batchSequence;
+                notifyAll();
+                commitCount++;
+                committedBytes += bytes;
+                commitNanos += System.nanoTime() - start;
+            }
+        }
+    }
+
+    // Writes the records in the buffer at the given log position, leaving the buffer itself untouched.
+    // Returns the position after them.
+    private long writeAt(ByteBuffer records, long position) throws IOException {
+        ByteBuffer out = records.duplicate().flip();
+        while (out.hasRemaining()) {
+            position += logChannel.write(out, position);
+        }
+        return position;
+    }
+
+    // Blocks until the record with this sequence and every one before it has been fsynced. Writers that arrive while a
+    // batch is being written are committed together by the next fsync.
+    public synchronized void awaitDurable(long sequence) throws InterruptedException {
+        if (durableSequence >= sequence) {
+            return;
+        }
+        durabilityWaiters++;
+        try {
+            notifyAll();
+            while (durableSequence < sequence) {
+                wait();
+            }
+        } finally {
+            durabilityWaiters--;
+        }
+    }
+
+    // Blocks until everything appended so far has been fsynced; does nothing once the journal is closed.
+    public void flush() throws IOException {
+        long target = getLastSequence();
+        while (logChannel != null && logChannel.isOpen() && getDurableSequence() < target) {
+            commit();
+        }
+    }
+
+    // Takes a snapshot once enough records have piled up; call between commands so the state is not mid-update.
+    public void maybeSnapshot(StudentTracker tracker) throws IOException {
+        if (recordsSinceSnapshot >= SNAPSHOT_THRESHOLD_RECORDS) {
+            snapshot(tracker);
+        }
+    }
+
+    // Holds off changes while the state is written, so the snapshot's sequence is the last record it contains.
+    public void snapshot(StudentTracker tracker) throws IOException {
+        changeLock.writeLock().lock();
+        try {
+            snapshotLocked(tracker);
+        } finally {
+            changeLock.writeLock().unlock();
+        }
+    }
+
+    private void snapshotLocked(StudentTracker tracker) throws IOException {
+        synchronized (commitLock) {
+            synchronized (this) {
+                writePendingLocked();
+                Path temporary = snapshotPath.resolveSibling(SNAPSHOT_FILE + ".tmp");
+                try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    DataOutputStream out = new DataOutputStream(
+                            new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+                    writeSnapshot(tracker, out);
+                    out.flush();
+                    channel.force(true);
+                }
+                Files.move(temporary, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                // Every logged record is now in the snapshot; replay skips anything at or below its sequence anyway.
+                logChannel.truncate(0);
+                logChannel.force(true);
+                durablePosition = 0;
+                recordsSinceSnapshot = 0;
+            }
+        }
+    }
+
+    // Callers hold both commitLock and this, so nothing is appended or committed meanwhile. A batch left over from a
+    // failed commit is written before the records appended after it; both are kept if this fails too.
+    private void writePendingLocked() throws IOException {
+        long end = writeAt(pending, writeAt(writing, durablePosition));
+        logChannel.force(false);
+        durablePosition = end;
+        writing.clear();
+        pending.clear();
+        durableSequence = lastSequence;
+        notifyAll();
+    }
+
+    private void writeSnapshot(StudentTracker tracker, DataOutputStream out) throws IOException {
+        out.writeInt(SNAPSHOT_MAGIC);
+        out.writeInt(SNAPSHOT_VERSION);
+        out.writeLong(lastSequence);
+        out.writeInt(tracker.getNextId());
+
+        int courseCount = tracker.getCatalog().size();
+        out.writeInt(courseCount);
+        for (int courseId = 0; courseId < courseCount; courseId++) {
+            Course course = tracker.getCourse(courseId);
+            out.writeUTF(course.getName());
+            out.writeLong(course.getSubmissionCount());
+            out.writeLong(course.getGradeSum());
+            out.writeLong(course.getGradeSquareSum());
+            out.writeInt(course.getMinGrade());
+            out.writeInt(course.getMaxGrade());
+            writeActivity(course.getMinuteActivity(), out);
+            writeActivity(course.getHourActivity(), out);
+            writeHistogram(course.getScoreHistogram(), out);
+        }
+
+        List<Student> students = tracker.getStudentsInIdOrder();
+        out.writeInt(students.size());
+        for (Student student : students) {
+            out.writeInt(student.getNumericId());
+            out.writeUTF(student.getFirstName());
+            out.writeUTF(student.getLastName());
+            out.writeUTF(student.getEmail());
+            for (int courseId = 0; courseId < courseCount; courseId++) {
+                out.writeInt(student.getGrade(courseId));
+                out.writeInt(student.getSubmissions(courseId));
+            }
+            long[] notices = student.getCompletionNotices().toLongArray();
+            out.writeByte(notices.length);
+            for (long word : notices) {
+                out.writeLong(word);
+            }
+        }
+
+        // Notifications still with the dispatcher count as pending; delivery logs NOTIFICATION_SENT once it succeeds.
+        List<Notification> undelivered = tracker.getUndeliveredNotifications();
+        out.writeInt(undelivered.size());
+        for (Notification notification : undelivered) {
+            out.writeInt(notification.getStudent().getNumericId());
+            out.writeByte(notification.getCourse().getId());
+        }
+    }
+
+    private int readSnapshot(StudentTracker tracker) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotPath), 1 << 16))) {
+            int version = in.readInt() == SNAPSHOT_MAGIC ? in.readInt() : -1;
+            if (version < 1 || version > SNAPSHOT_VERSION) {
+                throw new IOException("Unrecognised snapshot file " + snapshotPath);
+            }
+            lastSequence = in.readLong();
+            durableSequence = lastSequence;
+            int nextId = in.readInt();
+
+            // Snapshot courses are matched to the catalog by name, so courses may have been added since it was taken.
+            CourseCatalog catalog = tracker.getCatalog();
+            int[] courseIds = new int[in.readInt()];
+            for (int i = 0; i < courseIds.length; i++) {
+                String name = in.readUTF();
+                courseIds[i] = catalog.findId(name);
+                if (courseIds[i] < 0) {
+                    throw new IOException("Snapshot course " + name + " is not in the course catalog");
+                }
+                Course course = tracker.getCourse(courseIds[i]);
+                course.restoreAggregates(in.readLong(), in.readLong(), in.readLong(), in.readInt(), in.readInt());
+                if (version >= 2) {
+                    readActivity(course.getMinuteActivity(), in);
+                    readActivity(course.getHourActivity(), in);
+                }
+                if (version >= 4) {
+                    int bucketCount = in.readInt();
+                    for (int b = 0; b < bucketCount; b++) {
+                        course.restoreScoreHistogram(in.readShort(), in.readLong());
+                    }
+                }
+            }
+
+            int studentCount = in.readInt();
+            int[] grades = new int[catalog.size()];
+            int[] submissions = new int[catalog.size()];
+            for (int i = 0; i < studentCount; i++) {
+                int id = in.readInt();
+                String firstName = in.readUTF();
+                String lastName = in.readUTF();
+                String email = in.readUTF();
+                for (int courseId : courseIds) {
+                    grades[courseId] = in.readInt();
+                    submissions[courseId] = in.readInt();
+                }
+                BitSet snapshotNotices;
+                if (version >= 3) {
+                    long[] words = new long[in.readUnsignedByte()];
+                    for (int w = 0; w < words.length; w++) {
+                        words[w] = in.readLong();
+                    }
+                    snapshotNotices = BitSet.valueOf(words);
+                } else {
+                    snapshotNotices = BitSet.valueOf(new long[] {in.readInt() & 0xFFFFFFFFL});
+                }
+                BitSet notices = new BitSet(catalog.size());
+                for (int bit = snapshotNotices.nextSetBit(0); bit >= 0; bit = snapshotNotices.nextSetBit(bit + 1)) {
+                    notices.set(courseIds[bit]);
+                }
+                Student student = tracker.restoreStudent(id, firstName, lastName, email);
+                student.restoreProgress(grades, submissions, notices);
+            }
+            tracker.restoreNextId(nextId);
+
+            int pendingCount = in.readInt();
+            for (int i = 0; i < pendingCount; i++) {
+                tracker.restorePendingNotification(in.readInt(), courseIds[in.readUnsignedByte()]);
+            }
+            return studentCount;
+        }
+    }
+
+    private static void writeActivity(ActivityWindow window, DataOutputStream out) throws IOException {
+        List<ActivityWindow.Bucket> buckets = window.getBuckets();
+        out.writeInt(buckets.size());
+        for (ActivityWindow.Bucket bucket : buckets) {
+            out.writeLong(bucket.epoch());
+            out.writeLong(bucket.count());
+            out.writeLong(bucket.sum());
+        }
+    }
+
+    // Only the non-empty buckets, as (index, count) pairs.
+    private static void writeHistogram(PointsHistogram histogram, DataOutputStream out) throws IOException {
+        long[] counts = histogram.snapshot();
+        int used = 0;
+        for (long count : counts) {
+            if (count != 0) {
+                used++;
+            }
+        }
+        out.writeInt(used);
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                out.writeShort(i);
+                out.writeLong(counts[i]);
+            }
+        }
+    }
+
+    private static void readActivity(ActivityWindow window, DataInputStream in) throws IOException {
+        int bucketCount = in.readInt();
+        for (int i = 0; i < bucketCount; i++) {
+            window.restoreBucket(new ActivityWindow.Bucket(in.readLong(), in.readLong(), in.readLong()));
+        }
+    }
+
+    // Applies every intact record newer than the snapshot and cuts off a torn tail left by a crash.
+    private long replayLog(StudentTracker tracker) throws IOException {
+        if (!Files.exists(logPath)) {
+            return 0;
+        }
+        long replayed = 0;
+        long validLength = 0;
+        int courseCount = tracker.getCatalog().size();
+        try (InputStream stream = new BufferedInputStream(Files.newInputStream(logPath), 1 << 16)) {
+            DataInputStream in = new DataInputStream(stream);
+            byte[] body = new byte[256];
+            while (true) {
+                int bodyLength;
+                int checksum;
+                try {
+                    bodyLength = in.readInt();
+                    checksum = in.readInt();
+                    if (bodyLength < 9 || bodyLength > 1 << 16) {
+                        break;
+                    }
+                    if (body.length < bodyLength) {
+                        body = new byte[bodyLength];
+                    }
+                    in.readFully(body, 0, bodyLength);
+                } catch (EOFException e) {
+                    break;
+                }
+                crc.reset();
+                crc.update(body, 0, bodyLength);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                validLength += 8 + bodyLength;
+
+                ByteBuffer record = ByteBuffer.wrap(body, 0, bodyLength);
+                byte type = record.get();
+                long sequence = record.getLong();
+                if (sequence <= lastSequence) {
+                    continue;
+                }
+                lastSequence = sequence;
+                if (applyRecord(tracker, type, record, courseCount)) {
+                    replayed++;
+                } else {
+                    skippedRecords++;
+                }
+            }
+        }
+        durableSequence = lastSequence;
+        try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.WRITE)) {
+            if (channel.size() > validLength) {
+                channel.truncate(validLength);
+            }
+        }
+        return replayed;
+    }
+
+    // Log records hold catalog ids, so they replay correctly as long as courses were only added at the end.
+    // Returns false for a record about a student that is neither in the snapshot nor added earlier in the log.
+    private boolean applyRecord(StudentTracker tracker, byte type, ByteBuffer record, int courseCount)
+            throws IOException {
+        switch (type) {
+            case STUDENT_ADDED -> {
+                int id = record.getInt();
+                String firstName = getString(record);
+                String lastName = getString(record);
+                String email = getString(record);
+                tracker.restoreStudent(id, firstName, lastName, email);
+                tracker.restoreNextId(id + 1);
+            }
+            case POINTS_ADDED -> {
+                Student student = tracker.getStudent(record.getInt());
+                if (student == null) {
+                    return false;
+                }
+                long timestamp = record.getLong();
+                int[] scores = new int[record.get() & 0xFF];
+                for (int i = 0; i < scores.length; i++) {
+                    scores[i] = record.getInt();
+                }
+                // Rows logged before courses were added have no scores for them.
+                if (scores.length < courseCount) {
+                    scores = Arrays.copyOf(scores, courseCount);
+                }
+                tracker.submitPoints(student, timestamp, scores);
+            }
+            case NOTIFICATION_SENT -> {
+                int studentId = record.getInt();
+                int courseId = record.get() & 0xFF;
+                if (courseId >= courseCount) {
+                    throw new IOException("Journal refers to course " + courseId + " beyond the course catalog");
+                }
+                if (tracker.getStudent(studentId) == null) {
+                    return false;
+                }
+                tracker.restoreSentNotification(studentId, courseId);
+            }
+            default -> throw new IOException("Unknown journal record type " + type);
+        }
+        return true;
+    }
+
+    private static String getString(ByteBuffer record) {
+        byte[] bytes = new byte[record.getShort()];
+        record.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public synchronized long getCommitCount() {
+        return commitCount;
+    }
+
+    public synchronized long getCommittedBytes() {
+        return committedBytes;
+    }
+
+    public synchronized long getCommitNanos() {
+        return commitNanos;
+    }
+
+    public synchronized long getLastSequence() {
+        return lastSequence;
+    }
+
+    public synchronized long getDurableSequence() {
+        return durableSequence;
+    }
+
+    // Stops the committer and makes everything appended so far durable.
+    @Override
+    public void close() throws IOException {
+        running = false;
+        if (committer != null) {
+            // Not interrupted: an interrupt during a write would close the channel.
+            try {
+                committer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (logChannel != null) {
+            try {
+                synchronized (commitLock) {
+                    synchronized (this) {
+                        writePendingLocked();
+                    }
+                }
+            } finally {
+                logChannel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package tracker;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.ObjectName;
+/**
+ * Publishes a tracker's metrics over JMX as read-only attributes under tracker:type=Metrics.
+ * Besides the student and notification gauges, every operation has Count, PerSecond, P50Micros, P99Micros and
+ * MaxMicros attributes prefixed with its label, for example addSubmissionP99Micros. Values are read when asked for.
+ */
+public class TrackerMetricsBean implements DynamicMBean {
+    public static final String OBJECT_NAME = "tracker:type=Metrics";
+    private static final String[] OPERATION_ATTRIBUTES = {"Count", "PerSecond", "P50Micros", "P99Micros", "MaxMicros"};
+
+    private final Tracker tracker;
+    private final MBeanInfo info;
+
+    public TrackerMetricsBean(Tracker tracker) {
+        this.tracker = tracker;
+        List<MBeanAttributeInfo> attributes = new ArrayList<>();
+        attributes.add(attribute("Students", "long", "Registered students"));
+        attributes.add(attribute("PendingNotifications", "long", "Completion notifications waiting for 'notify'"));
+        attributes.add(attribute("DeliveredNotifications", "long", "Notifications handed to the sink"));
+        for (TrackerMetrics.Operation operation : TrackerMetrics.Operation.values()) {
+            for (String suffix : OPERATION_ATTRIBUTES) {
+                String type = suffix.equals("Count") ? "long" : "double";
+                attributes.add(attribute(operation.getLabel() + suffix, type, suffix + " of " + operation.getLabel()));
+            }
+        }
+        this.info = new MBeanInfo(getClass().getName(), "Learning Progress Tracker metrics",
+                attributes.toArray(new MBeanAttributeInfo[0]), null, new MBeanOperationInfo[0], null);
+    }
+
+    // Registers the tracker's metrics with the platform MBean server, replacing an earlier registration.
+    public static void register(Tracker tracker) throws JMException {
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        if (ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        }
+        ManagementFactory.getPlatformMBeanServer().registerMBean(new TrackerMetricsBean(tracker), name);
+    }
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        switch (attribute) {
+            case "Students" -> {
+                return (long) tracker.getStudentCount();
+            }
+            case "PendingNotifications" -> {
+                return (long) tracker.getPendingNotificationCount();
+            }
+            case "DeliveredNotifications" -> {
+                return tracker.getNotificationDispatcher().getDeliveredCount();
+            }
+            default -> {
+                TrackerMetrics metrics = tracker.getMetrics();
+                for (TrackerMetrics.Operation operation : TrackerMetrics.Operation.values()) {
+                    if (!attribute.startsWith(operation.getLabel())) {
+                        continue;
+                    }
+                    switch (attribute.substring(operation.getLabel().length())) {
+                        case "Count" -> {
+                            return metrics.getCount(operation);
+                        }
+                        case "PerSecond" -> {
+                            return metrics.getRate(operation);
+                        }
+                        case "P50Micros" -> {
+                            return (double) metrics.getLatencies(operation).getValueAtQuantile(0.5);
+                        }
+                        case "P99Micros" -> {
+                            return (double) metrics.getLatencies(operation).getValueAtQuantile(0.99);
+                        }
+                        case "MaxMicros" -> {
+                            return (double) metrics.getLatencies(operation).getMaxValue();
+                        }
+                        default -> {
+                        }
+                    }
+                }
+                throw new AttributeNotFoundException(attribute);
+            }
+        }
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        AttributeList values = new AttributeList();
+        for (String attribute : attributes) {
+            try {
+                values.add(new Attribute(attribute, getAttribute(attribute)));
+            } catch (AttributeNotFoundException e) {
+                // Unknown attributes are left out, as the DynamicMBean contract allows.
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("Metrics are read-only: " + attribute.getName());
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) {
+        throw new UnsupportedOperationException("No operations: " + actionName);
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        return info;
+    }
+
+    private static MBeanAttributeInfo attribute(String name, String type, String description) {
+        return new MBeanAttributeInfo(name, type, description, true, false, false);
+    }
+}
@@ -0,0 +1,132 @@
+package tracker;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+/**
+ * A point-in-time view of the students and their points, for reports that run while points keep arriving.
+ * Opening one costs an epoch change rather than a copy: students keep their earlier points only when they change
+ * while the snapshot is open, so the extra work is proportional to the writes made during the report. The view is
+ * safe to read from several threads; close it to let students drop the points they kept for it.
+ */
+public class TrackerSnapshot implements AutoCloseable {
+    private final SnapshotClock clock;
+    private final int epoch;
+    private final Supplier<List<Student>> studentSource;
+    private List<Student> students;
+    // Course standings built from the snapshot on first use, by course id.
+    private final Map<Integer, List<Course.Standing>> standings = new ConcurrentHashMap<>();
+    private boolean closed;
+
+    TrackerSnapshot(SnapshotClock clock, Supplier<List<Student>> studentSource) {
+        this.clock = clock;
+        this.studentSource = studentSource;
+        this.epoch = clock.open();
+    }
+
+    public int getEpoch() {
+        return epoch;
+    }
+
+    // The students registered before the snapshot was taken.
+    public synchronized List<Student> getStudents() {
+        if (students == null) {
+            List<Student> visible = new ArrayList<>();
+            for (Student student : studentSource.get()) {
+                if (student.existsAt(epoch)) {
+                    visible.add(student);
+                }
+            }
+            students = Collections.unmodifiableList(visible);
+        }
+        return students;
+    }
+
+    // The student's points in the course when the snapshot was taken; 0 if they were not registered yet.
+    public int getPoints(Student student, int courseId) {
+        return student.getGradeAt(courseId, epoch);
+    }
+
+    // The course's enrolled students in STANDING_ORDER, as they stood when the snapshot was taken.
+    public List<Course.Standing> getStandings(CourseView course) {
+        return standings.computeIfAbsent(course.getId(),
+                courseId -> standingsOf(course.getStandings(), courseId, 1, Integer.MAX_VALUE, Integer.MAX_VALUE));
+    }
+
+    // The first limit of the course's standings, as above, reading only as far into the leaderboard as needed.
+    public List<Course.Standing> getTopStandings(CourseView course, int limit) {
+        return standingsOf(course.getStandings(), course.getId(), 1, Integer.MAX_VALUE, limit);
+    }
+
+    // The course's standings with points from low to high inclusive, as they stood when the snapshot was taken.
+    public List<Course.Standing> getStandingsBetween(CourseView course, int low, int high) {
+        if (low > high) {
+            return List.of();
+        }
+        return standingsOf(course.getStandingsBetween(low, high), course.getId(), low, high, Integer.MAX_VALUE);
+    }
+
+    // Copies up to limit standings from the live leaderboard walk, then swaps in the earlier standings of the
+    // students the clock lists as changed since the snapshot. Everyone else kept a single entry throughout the walk,
+    // so the copy holds each of them exactly once. The cost is the standings read plus the changes since the snapshot,
+    // not a pass over every student.
+    private List<Course.Standing> standingsOf(Iterable<Course.Standing> live, int courseId, int low, int high,
+                                             int limit) {
+        Set<Student> changed = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Course.Standing> kept = new ArrayList<>();
+        while (true) {
+            clock.collectChanges(epoch, changed);
+            kept.clear();
+            boolean complete = true;
+            for (Course.Standing standing : live) {
+                if (kept.size() == limit) {
+                    complete = false;
+                    break;
+                }
+                // Students registered after the snapshot are not part of it.
+                if (!changed.contains(standing.student()) && standing.student().existsAt(epoch)) {
+                    kept.add(standing);
+                }
+            }
+            // Collected again after the walk, so it covers every change the walk may have seen half done.
+            int before = changed.size();
+            clock.collectChanges(epoch, changed);
+            if (changed.size() == before) {
+                break;
+            }
+            kept.removeIf(standing -> changed.contains(standing.student()));
+            // A walk cut short by the limit has to go further if students changed under it dropped out.
+            if (complete || kept.size() == limit) {
+                break;
+            }
+        }
+        if (changed.isEmpty()) {
+            return Collections.unmodifiableList(kept);
+        }
+        List<Course.Standing> earlier = new ArrayList<>();
+        for (Student student : changed) {
+            int points = getPoints(student, courseId);
+            if (points > 0 && points >= low && points <= high) {
+                earlier.add(new Course.Standing(student, points, student.getNumericId()));
+            }
+        }
+        // Two sorted runs, which the sort merges in linear time.
+        earlier.sort(Course.STANDING_ORDER);
+        kept.addAll(earlier);
+        kept.sort(Course.STANDING_ORDER);
+        return Collections.unmodifiableList(kept.size() > limit ? kept.subList(0, limit) : kept);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            closed = true;
+            clock.close(epoch);
+        }
+    }
+}
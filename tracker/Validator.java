@@ -1,16 +1,48 @@
 package tracker;
+
+import java.util.regex.Pattern;
 /**
  * A class for validating data entered by the user.
  * Contains methods to validate data entry for students and courses.
  */
 public class Validator {
-    private static final String NAME_REGEX = "^(?!.*['-]{2})[A-Za-z][A-Za-z' -]*[A-Za-z]$";
+    private static final Pattern NAME_PATTERN = Pattern.compile("^(?!.*['-]{2})[A-Za-z][A-Za-z' -]*[A-Za-z]$");
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[^@]+@[^@]+\\.[^@]+$");
 
     public static boolean isValidName(String name) {
-        return name.matches(NAME_REGEX) && name.length() >= 2;
+        return name.length() >= 2 && NAME_PATTERN.matcher(name).matches();
     }
 
     public static boolean isValidEmail(String email) {
-        return email.matches("^[^@]+@[^@]+\\.[^@]+$");
+        return EMAIL_PATTERN.matcher(email).matches();
+    }
+
+    // Same as matching "^\\d+$".
+    public static boolean isDigits(String input) {
+        if (input.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < input.length(); i++) {
+            char c = input.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Same as matching "\\s*".
+    public static boolean isBlank(String input) {
+        for (int i = 0; i < input.length(); i++) {
+            if (!isWhitespace(input.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // The characters matched by the regex class \s.
+    public static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
     }
-}
\ No newline at end of file
+}